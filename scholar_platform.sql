@@ -246,7 +246,8 @@ CREATE TABLE `paper_keywords` (
   `cnt11` int DEFAULT NULL,
   `cnt12` int DEFAULT NULL,
   PRIMARY KEY (`id`),
-  KEY `idx_keyword` (`keyword`)
+  UNIQUE KEY `uk_keyword` (`keyword`),
+  KEY `idx_cnt` (`cnt`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='论文关键词统计';
 
 LOCK TABLES `paper_keywords` WRITE;
@@ -262,6 +263,35 @@ INSERT INTO paper_keywords (id,keyword,cnt,cnt1,cnt2,cnt3,cnt4,cnt5,cnt6,cnt7,cn
 UNLOCK TABLES;
 
 
+-- paper_keyword_daily definition
+DROP TABLE IF EXISTS `paper_keyword_daily`;
+CREATE TABLE `paper_keyword_daily` (
+  `keyword` varchar(255) NOT NULL COMMENT '关键词',
+  `day` date NOT NULL COMMENT '统计日期',
+  `cnt` int NOT NULL DEFAULT '0' COMMENT '当日浏览次数',
+  PRIMARY KEY (`keyword`,`day`),
+  KEY `idx_day` (`day`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='论文关键词按天计数';
+
+
+-- job_watermark definition
+DROP TABLE IF EXISTS `job_watermark`;
+CREATE TABLE `job_watermark` (
+  `job_name` varchar(100) NOT NULL COMMENT '任务名',
+  `watermark` varchar(255) NOT NULL COMMENT '上次成功处理到的位置',
+  `updated_at` datetime(6) NOT NULL COMMENT '更新时间',
+  PRIMARY KEY (`job_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='批处理任务增量水位';
+
+
+-- coauthor_counted_work definition
+DROP TABLE IF EXISTS `coauthor_counted_work`;
+CREATE TABLE `coauthor_counted_work` (
+  `work_id` varchar(100) NOT NULL COMMENT '已计入 author_relation 的论文 ID',
+  PRIMARY KEY (`work_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='合作关系任务已计数论文';
+
+
 --
 -- Table structure for table `papers`
 --
@@ -0,0 +1,116 @@
+package com.scholar.platform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * 检索缓存提前刷新用的小线程池，队列满时直接丢弃（缓存仍可用，下次命中会再尝试）
+     */
+    @Bean
+    public ThreadPoolTaskExecutor searchRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("search-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 检索前置查询（作者/机构 ID 解析等）的并行线程池，队列满时由调用线程执行，保证查询不丢
+     */
+    @Bean
+    public ThreadPoolTaskExecutor searchLookupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("search-lookup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 远程翻译调用线程池，调用方按延迟预算等待结果；队列满时拒绝，检索退化为不翻译
+     */
+    @Bean
+    public ThreadPoolTaskExecutor translationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("translation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 排行榜生成任务的领域并行线程池，并发度限制对 ES 和 MySQL 的压力；领域任务不可丢弃
+     */
+    @Bean
+    public ThreadPoolTaskExecutor rankingExecutor(@Value("${ranking.job.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("ranking-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 学者影响力的后台刷新（读请求触发）；队列满时拒绝，调用方继续返回缓存中的旧值或 pending 结果，
+     * 不能在请求线程中查询 ES
+     */
+    @Bean
+    public ThreadPoolTaskExecutor influenceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("influence-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 已认证学者影响力的每日预热，单线程逐个计算，不占用读请求的刷新队列；上一轮未结束时拒绝新一轮
+     */
+    @Bean
+    public ThreadPoolTaskExecutor influenceWarmExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("influence-warm-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 合作关系生成任务，同一时间只运行一个
+     */
+    @Bean
+    public ThreadPoolTaskExecutor coauthorJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("coauthor-job-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,10 +1,14 @@
 package com.scholar.platform.config;
 
+import com.scholar.platform.service.cache.CachedPage;
+import com.scholar.platform.service.cache.CachedPageSerializer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -27,4 +31,27 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * 检索结果缓存专用模板，值使用紧凑二进制格式而不是带类型信息的 JSON
+     */
+    @Bean
+    public RedisTemplate<String, CachedPage<?>> searchCacheRedisTemplate(LettuceConnectionFactory connectionFactory) {
+        RedisTemplate<String, CachedPage<?>> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new CachedPageSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * Redis pub/sub 监听容器，用于多节点之间广播本地缓存失效等消息
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
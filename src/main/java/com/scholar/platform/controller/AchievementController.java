@@ -38,11 +38,18 @@ public class AchievementController {
       @Parameter(description = "排序字段 (date: 时间, citation: 引用量)") @RequestParam(required = false) String sortBy,
       @Parameter(description = "排序方式 (asc: 升序, desc: 降序)") @RequestParam(defaultValue = "desc") String sortOrder,
       @Parameter(description = "页码") @RequestParam(defaultValue = "0") int page,
-      @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int size) {
+      @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int size,
+      @Parameter(description = "游标（深翻页用）：传空串开始游标分页，之后传上一页返回的 nextCursor，此时忽略 page")
+      @RequestParam(required = false) String cursor) {
     
     Pageable pageable = PageRequest.of(page, size);
     
     try {
+      if (cursor != null) {
+        PageResponse<AchievementDTO> result = achievementService.searchAfter(q, field, startDate, endDate, author,
+            institution, sortBy, sortOrder, size, cursor);
+        return ResponseEntity.ok(ApiResponse.success(result));
+      }
       Page<AchievementDTO> result = achievementService.advancedSearch(q, field, startDate, endDate, author, institution, sortBy, sortOrder, pageable);
       return ResponseEntity.ok(ApiResponse.success(PageResponse.of(result)));
     } catch (IllegalArgumentException e) {
@@ -2,6 +2,8 @@ package com.scholar.platform.controller;
 
 import com.scholar.platform.dto.AuthorInfluenceDTO;
 import com.scholar.platform.dto.AuthorRelationDTO;
+import com.scholar.platform.dto.CoauthorDTO;
+import com.scholar.platform.dto.CollaborationNetworkDTO;
 import com.scholar.platform.dto.ScholarRankingDTO;
 import com.scholar.platform.service.AnalysisAuthorService;
 import lombok.RequiredArgsConstructor;
@@ -44,4 +46,47 @@ public class AnalysisAuthorController {
     public ResponseEntity<List<AuthorRelationDTO>> getAuthorRelation(@PathVariable String authorName) {
         return ResponseEntity.ok(analysisAuthorService.getAuthorRelation(authorName));
     }
+
+    /**
+     * 合作次数最多的合作者
+     * 接口: GET /analysis/coauthors/{authorId}?limit=20
+     */
+    @GetMapping("/coauthors/{authorId}")
+    public ResponseEntity<List<CoauthorDTO>> getTopCoauthors(@PathVariable String authorId,
+                                                             @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(analysisAuthorService.getTopCoauthors(authorId, Math.min(limit, 500)));
+    }
+
+    /**
+     * 二度合作者（合作者的合作者），按共同合作者数排序
+     * 接口: GET /analysis/coauthors/{authorId}/second-degree?limit=20
+     */
+    @GetMapping("/coauthors/{authorId}/second-degree")
+    public ResponseEntity<List<CoauthorDTO>> getSecondDegreeCoauthors(@PathVariable String authorId,
+                                                                      @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(analysisAuthorService.getSecondDegreeCoauthors(authorId, Math.min(limit, 500)));
+    }
+
+    /**
+     * 两位作者之间的最短合作路径
+     * 接口: GET /analysis/coauthors/path?from=A1&to=A2
+     */
+    @GetMapping("/coauthors/path")
+    public ResponseEntity<CollaborationNetworkDTO> getCollaborationPath(@RequestParam String from,
+                                                                        @RequestParam String to) {
+        return ResponseEntity.ok(analysisAuthorService.getCollaborationPath(from, to));
+    }
+
+    /**
+     * 以作者为中心的合作网络（k 跳，最多 3 跳）
+     * 接口: GET /analysis/coauthors/{authorId}/network?hops=2&fanOut=30
+     */
+    @GetMapping("/coauthors/{authorId}/network")
+    public ResponseEntity<CollaborationNetworkDTO> getEgoNetwork(@PathVariable String authorId,
+                                                                 @RequestParam(defaultValue = "2") int hops,
+                                                                 @RequestParam(defaultValue = "30") int fanOut) {
+        int boundedHops = Math.max(1, Math.min(hops, 3));
+        int boundedFanOut = Math.max(1, Math.min(fanOut, 200));
+        return ResponseEntity.ok(analysisAuthorService.getEgoNetwork(authorId, boundedHops, boundedFanOut));
+    }
 }
@@ -0,0 +1,43 @@
+package com.scholar.platform.controller;
+
+import com.scholar.platform.dto.ApiResponse;
+import com.scholar.platform.dto.CoauthorBuildStatus;
+import com.scholar.platform.service.graph.CoauthorRelationBuilder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/admin/coauthor-jobs")
+@RequiredArgsConstructor
+@Tag(name = "合作关系生成", description = "从论文作者列表生成 author_relation")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class CoauthorJobController {
+
+  private final CoauthorRelationBuilder coauthorRelationBuilder;
+
+  @PostMapping
+  @Operation(summary = "触发合作关系生成", description = "incremental=true 时只处理上次水位之后新增的论文；异步执行，立即返回任务状态")
+  public ResponseEntity<ApiResponse<CoauthorBuildStatus>> submit(
+      @RequestParam(defaultValue = "true") boolean incremental) {
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+        .body(ApiResponse.success(coauthorRelationBuilder.submit(incremental)));
+  }
+
+  @GetMapping("/current")
+  @Operation(summary = "查询合作关系生成进度", description = "正在运行的任务，没有时返回最近一次结束的任务")
+  public ResponseEntity<ApiResponse<CoauthorBuildStatus>> current() {
+    CoauthorBuildStatus status = coauthorRelationBuilder.currentStatus();
+    if (status == null) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(404, "尚未运行过"));
+    }
+    return ResponseEntity.ok(ApiResponse.success(status));
+  }
+}
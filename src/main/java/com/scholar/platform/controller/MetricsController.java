@@ -0,0 +1,71 @@
+package com.scholar.platform.controller;
+
+import com.scholar.platform.dto.ApiResponse;
+import com.scholar.platform.service.TranslationService;
+import com.scholar.platform.service.cache.NameIdResolver;
+import com.scholar.platform.service.cache.SearchCacheService;
+import com.scholar.platform.service.counter.AchievementCounterBuffer;
+import com.scholar.platform.service.counter.KeywordViewBuffer;
+import com.scholar.platform.service.graph.CoauthorGraphService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/admin/metrics")
+@RequiredArgsConstructor
+@Tag(name = "运行指标", description = "缓存、写回缓冲等内部组件的运行指标")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class MetricsController {
+
+  private final AchievementCounterBuffer achievementCounterBuffer;
+  private final SearchCacheService searchCacheService;
+  private final NameIdResolver nameIdResolver;
+  private final TranslationService translationService;
+  private final KeywordViewBuffer keywordViewBuffer;
+  private final CoauthorGraphService coauthorGraphService;
+
+  @GetMapping("/counters")
+  @Operation(summary = "阅读/收藏计数写回缓冲指标", description = "待写回增量、写回次数与耗时")
+  public ResponseEntity<ApiResponse<Map<String, Object>>> getCounterBufferStats() {
+    return ResponseEntity.ok(ApiResponse.success(achievementCounterBuffer.stats()));
+  }
+
+  @GetMapping("/search-cache")
+  @Operation(summary = "检索结果缓存指标", description = "本地 L1 与 Redis L2 的命中/未命中计数")
+  public ResponseEntity<ApiResponse<Map<String, Object>>> getSearchCacheStats() {
+    return ResponseEntity.ok(ApiResponse.success(searchCacheService.stats()));
+  }
+
+  @GetMapping("/name-id-cache")
+  @Operation(summary = "作者/机构 ID 解析缓存指标", description = "缓存条目数与命中率")
+  public ResponseEntity<ApiResponse<Map<String, Object>>> getNameIdCacheStats() {
+    return ResponseEntity.ok(ApiResponse.success(nameIdResolver.stats()));
+  }
+
+  @GetMapping("/translation-cache")
+  @Operation(summary = "翻译缓存指标", description = "本地翻译缓存条目数与命中率")
+  public ResponseEntity<ApiResponse<Map<String, Object>>> getTranslationCacheStats() {
+    return ResponseEntity.ok(ApiResponse.success(translationService.stats()));
+  }
+
+  @GetMapping("/keyword-counters")
+  @Operation(summary = "关键词浏览计数写回缓冲指标", description = "待写回关键词数、写回次数与耗时")
+  public ResponseEntity<ApiResponse<Map<String, Object>>> getKeywordBufferStats() {
+    return ResponseEntity.ok(ApiResponse.success(keywordViewBuffer.stats()));
+  }
+
+  @GetMapping("/coauthor-graph")
+  @Operation(summary = "合作者内存图指标", description = "作者数、边数与最近一次加载耗时")
+  public ResponseEntity<ApiResponse<Map<String, Object>>> getCoauthorGraphStats() {
+    return ResponseEntity.ok(ApiResponse.success(coauthorGraphService.stats()));
+  }
+}
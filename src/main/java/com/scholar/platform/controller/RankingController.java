@@ -1,8 +1,13 @@
 package com.scholar.platform.controller;
 
+import com.scholar.platform.dto.ApiResponse;
+import com.scholar.platform.dto.RankingJobStatus;
 import com.scholar.platform.service.ScholarRankingBatchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,12 +20,24 @@ public class RankingController {
     private final ScholarRankingBatchService scholarRankingBatchService;
 
     /**
-     * 触发分领域排行榜生成任务
-     * POST /admin/jobs/generate-rankings
+     * 触发分领域排行榜生成任务（异步执行，立即返回任务 ID）
+     * POST /rankingjobs/generate-rankings
      */
     @PostMapping("/generate-rankings")
-    public ResponseEntity<String> generateRankings() {
-        String result = scholarRankingBatchService.generateDomainRankings();
-        return ResponseEntity.ok(result);
+    public ResponseEntity<ApiResponse<RankingJobStatus>> generateRankings() {
+        RankingJobStatus status = scholarRankingBatchService.submitDomainRankings();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(status));
+    }
+
+    /**
+     * 查询排行榜生成任务的进度与各领域耗时
+     * GET /rankingjobs/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<RankingJobStatus>> getJobStatus(@PathVariable String jobId) {
+        return scholarRankingBatchService.getJobStatus(jobId)
+                .map(status -> ResponseEntity.ok(ApiResponse.success(status)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(404, "任务不存在")));
     }
 }
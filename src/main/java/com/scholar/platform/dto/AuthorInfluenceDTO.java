@@ -16,5 +16,6 @@ public class AuthorInfluenceDTO {
     private Integer i10Index;
     private String authorName;
     private String domain;       // 一级学科，如 "Computer Science"
+    private boolean pending;     // 首次查询尚未计算完成，各项为 0，稍后再取
     //private String userId;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.scholar.platform.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class CoauthorBuildStatus {
+    private String runId;
+    private String mode; // FULL / INCREMENTAL
+    private String status; // RUNNING / COMPLETED / FAILED
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMillis;
+    private long worksScanned;
+    private long worksSkipped; // 作者数超过上限的论文，不计入合作关系
+    private long worksAlreadyCounted; // 水位重叠区间内已经计数过的论文
+    private long pairs; // 写入的作者对数
+    private int spillRuns; // 聚合时溢写到磁盘的有序段数
+    private String watermark; // 本次处理到的水位（epoch 毫秒）
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.scholar.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CoauthorDTO {
+    private String authorId;
+    private String authorName;
+    private Integer count; // 直接合作次数；二度合作者为经由共同合作者的路径权重之和
+    private Integer mutualCount; // 二度合作者的共同合作者数，一度合作者为 null
+}
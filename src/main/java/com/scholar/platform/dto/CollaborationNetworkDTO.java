@@ -0,0 +1,36 @@
+package com.scholar.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 合作网络查询结果：最短合作路径或以某位作者为中心的 k 跳子网络
+ */
+@Data
+public class CollaborationNetworkDTO {
+    private List<Node> nodes; // 最短路径时按路径顺序排列
+    private List<Edge> edges;
+    private boolean truncated; // 因扇出上限、节点上限或时间预算提前截断
+    private long elapsedMicros;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Node {
+        private String id;
+        private String name;
+        private int hop; // 与起点（中心作者）的跳数
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Edge {
+        private String source;
+        private String target;
+        private int count;
+    }
+}
@@ -28,6 +28,9 @@ public class PageResponse<T> {
   @Schema(description = "是否为最后一页")
   private boolean last;
 
+  @Schema(description = "下一页游标（游标分页时返回，最后一页为空）")
+  private String nextCursor;
+
   public static <T> PageResponse<T> of(Page<T> page) {
     PageResponse<T> response = new PageResponse<>();
     response.setContent(page.getContent());
@@ -38,4 +41,17 @@ public class PageResponse<T> {
     response.setLast(page.isLast());
     return response;
   }
+
+  public static <T> PageResponse<T> ofCursor(List<T> content, int pageNumber, int pageSize,
+      long totalElements, String nextCursor) {
+    PageResponse<T> response = new PageResponse<>();
+    response.setContent(content);
+    response.setPageNumber(pageNumber);
+    response.setPageSize(pageSize);
+    response.setTotalElements(totalElements);
+    response.setTotalPages(pageSize == 0 ? 1 : (int) Math.ceil((double) totalElements / pageSize));
+    response.setLast(nextCursor == null);
+    response.setNextCursor(nextCursor);
+    return response;
+  }
 }
@@ -0,0 +1,20 @@
+package com.scholar.platform.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+public class RankingJobStatus {
+    private String jobId;
+    private String status; // RUNNING / COMPLETED / FAILED
+    private int totalDomains;
+    private int completedDomains;
+    private int failedDomains;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMillis;
+    private Map<String, Long> domainMillis; // 各领域耗时（ms），含总榜 All Domains
+    private Map<String, String> errors;
+}
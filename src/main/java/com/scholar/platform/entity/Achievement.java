@@ -5,6 +5,7 @@ import com.scholar.platform.util.IdPrefixUtil;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
@@ -78,6 +79,10 @@ public class Achievement {
     @Field(name = "institution_names", type = FieldType.Keyword, analyzer = "ik_max_word", searchAnalyzer = "ik_smart")
     private List<String> institutionNames;
 
+    /** 入库时间（epoch 毫秒），由抓取程序写入，作为合作关系增量任务的水位 */
+    @Field(name = "indexed_at", type = FieldType.Date, format = DateFormat.epoch_millis)
+    private Long indexedAt;
+
     @Field(type = FieldType.Keyword)
     private AchievementStatus status = AchievementStatus.PENDING;
 
@@ -181,10 +186,30 @@ public class Achievement {
                     java.util.ArrayList::new));
             
             dto.setInstitution(uniqueInstitutions);
+        } else {
+            // 列表页投影不含嵌套 authorships，用平铺的 ID/名称数组组装作者和机构信息
+            dto.setAuthorships(zipInfos(achievement.getAuthorIds(), achievement.getAuthorNames(),
+                    AchievementDTO.AuthorInfo::new));
+            dto.setInstitution(zipInfos(achievement.getInstitutionIds(), achievement.getInstitutionNames(),
+                    AchievementDTO.InstitutionInfo::new));
         }
 
         return dto;
     }
 
 
+    private static <T> List<T> zipInfos(List<String> ids, List<String> names,
+            java.util.function.BiFunction<String, String, T> factory) {
+        if (ids == null || names == null || ids.size() != names.size()) {
+            return null;
+        }
+        List<T> infos = new java.util.ArrayList<>(ids.size());
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) != null && seen.add(ids.get(i))) {
+                infos.add(factory.apply(ids.get(i), names.get(i)));
+            }
+        }
+        return infos;
+    }
 }
\ No newline at end of file
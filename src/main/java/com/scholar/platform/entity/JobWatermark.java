@@ -0,0 +1,29 @@
+package com.scholar.platform.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 后台批处理任务的增量水位：记录上一次成功运行处理到的位置，下一次只处理之后变化的数据
+ */
+@Entity
+@Table(name = "job_watermark")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobWatermark {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "watermark", nullable = false)
+    private String watermark;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.UuidGenerator;
 
 @Entity
-@Table(name = "paper_keywords")
+@Table(name = "paper_keywords",
+    uniqueConstraints = @UniqueConstraint(name = "uk_keyword", columnNames = "keyword"),
+    indexes = @Index(name = "idx_cnt", columnList = "cnt"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,149 @@
+package com.scholar.platform.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 通过 _bulk 接口批量写入 ES
+ * 使用 update + doc_as_upsert：新文档直接创建，已有文档只覆盖抓取到的字段，保留阅读数/收藏数等站内字段；
+ * 按文档 ID 写入，重复抓取同一篇论文不会产生重复文档。
+ * 每个文档写入时带上入库时间 indexed_at（epoch 毫秒），供合作关系增量任务作为水位。
+ * 每位作者使用自己的 Batch，写检查点之前 flush：重试后仍失败，或有文档因 429/5xx 写入失败时抛出 IOException，
+ * 作者记为失败，下次运行从检查点重新抓取；映射错误等重试也不会成功的文档只计入失败数
+ */
+@Slf4j
+final class BulkIndexer {
+
+    static final String INDEXED_AT = "indexed_at";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final String bulkUrl;
+    private final int bulkSize;
+    private final ObjectMapper mapper;
+    private final HttpClient httpClient;
+
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    BulkIndexer(String elasticsearchUrl, int bulkSize, ObjectMapper mapper, HttpClient httpClient) {
+        this.bulkUrl = elasticsearchUrl.replaceAll("/+$", "") + "/_bulk";
+        this.bulkSize = Math.max(1, bulkSize);
+        this.mapper = mapper;
+        this.httpClient = httpClient;
+    }
+
+    Batch newBatch() {
+        return new Batch();
+    }
+
+    long indexedCount() {
+        return indexed.get();
+    }
+
+    long failedCount() {
+        return failed.get();
+    }
+
+    private void send(String payload, int count) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(bulkUrl))
+                .timeout(Duration.ofMinutes(1))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            if (status == 200) {
+                recordResult(mapper.readTree(response.body()), count);
+                return;
+            }
+            if ((status == 429 || status >= 500) && attempt < MAX_ATTEMPTS) {
+                Thread.sleep(1000L << attempt);
+                continue;
+            }
+            failed.addAndGet(count);
+            throw new IOException("bulk 写入失败, 状态码: " + status + ", 文档数: " + count);
+        }
+    }
+
+    private void recordResult(JsonNode result, int count) throws IOException {
+        if (!result.path("errors").asBoolean(false)) {
+            indexed.addAndGet(count);
+            return;
+        }
+        int errors = 0;
+        int retryable = 0;
+        String firstError = null;
+        for (JsonNode item : result.path("items")) {
+            JsonNode update = item.path("update");
+            JsonNode error = update.path("error");
+            if (!error.isMissingNode()) {
+                errors++;
+                int status = update.path("status").asInt();
+                if (status == 429 || status >= 500) {
+                    retryable++;
+                }
+                if (firstError == null) {
+                    firstError = error.toString();
+                }
+            }
+        }
+        indexed.addAndGet(count - errors);
+        failed.addAndGet(errors);
+        log.warn("bulk 写入部分失败: {}/{}, 首个错误: {}", errors, count, firstError);
+        if (retryable > 0) {
+            throw new IOException("bulk 写入部分失败, 可重试的文档数: " + retryable);
+        }
+    }
+
+    /**
+     * 一位作者待写入的文档，只在处理该作者的线程中使用；达到 bulkSize 时自动发送
+     */
+    final class Batch {
+
+        private final StringBuilder buffer = new StringBuilder();
+        private int buffered;
+
+        private Batch() {
+        }
+
+        void add(String index, String id, ObjectNode document) throws IOException, InterruptedException {
+            document.put(INDEXED_AT, System.currentTimeMillis());
+            ObjectNode action = mapper.createObjectNode();
+            action.putObject("update").put("_index", index).put("_id", id);
+            ObjectNode body = mapper.createObjectNode();
+            body.set("doc", document);
+            body.put("doc_as_upsert", true);
+            buffer.append(mapper.writeValueAsString(action)).append('\n')
+                    .append(mapper.writeValueAsString(body)).append('\n');
+            if (++buffered >= bulkSize) {
+                flush();
+            }
+        }
+
+        /**
+         * 发送剩余文档，返回后之前 add 的文档都已写入 ES
+         */
+        void flush() throws IOException, InterruptedException {
+            if (buffered == 0) {
+                return;
+            }
+            String payload = buffer.toString();
+            int count = buffered;
+            buffer.setLength(0);
+            buffered = 0;
+            send(payload, count);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.scholar.platform.ingest;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 持久化的作者抓取队列
+ * 四个追加写的日志文件：queue.log 记录入队过的作者，done.log 记录已完成的作者，
+ * cursors.log 记录作者论文翻页的游标检查点（每行 "作者ID\t游标"），works.log 记录已写出的论文。
+ * 每次写入后 flush，进程中断后重新打开即可恢复：未完成的作者重新入队，并从最后一个检查点继续翻页，
+ * 已写出的论文不会因为出现在其他作者名下而重复写出
+ */
+final class Frontier implements Closeable {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private final Set<String> seen = new HashSet<>();
+    private final ArrayDeque<String> pending = new ArrayDeque<>();
+    private final Map<String, String> cursors = new HashMap<>();
+    private final Set<String> works = ConcurrentHashMap.newKeySet();
+    private final BufferedWriter queueWriter;
+    private final BufferedWriter doneWriter;
+    private final BufferedWriter cursorWriter;
+    private final BufferedWriter worksWriter;
+    private int inProgress;
+    private long completed;
+
+    private Frontier(Path dir) throws IOException {
+        Path queueLog = dir.resolve("queue.log");
+        Path doneLog = dir.resolve("done.log");
+        Path cursorLog = dir.resolve("cursors.log");
+        Path worksLog = dir.resolve("works.log");
+
+        Set<String> done = new HashSet<>(readLines(doneLog));
+        for (String id : readLines(queueLog)) {
+            if (seen.add(id) && !done.contains(id)) {
+                pending.add(id);
+            }
+        }
+        for (String line : readLines(cursorLog)) {
+            int idx = line.indexOf('\t');
+            if (idx > 0 && !done.contains(line.substring(0, idx))) {
+                cursors.put(line.substring(0, idx), line.substring(idx + 1));
+            }
+        }
+        completed = done.size();
+        works.addAll(readLines(worksLog));
+
+        // 检查点日志只保留未完成作者的最新游标
+        Files.write(cursorLog, cursors.entrySet().stream().map(e -> e.getKey() + "\t" + e.getValue()).toList(),
+                StandardCharsets.UTF_8);
+        queueWriter = appender(queueLog);
+        doneWriter = appender(doneLog);
+        cursorWriter = appender(cursorLog);
+        worksWriter = appender(worksLog);
+    }
+
+    static Frontier open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        return new Frontier(dir);
+    }
+
+    /**
+     * 作者第一次出现时入队并落盘，已入队过（包括已完成）的作者忽略
+     */
+    boolean offer(String authorId) throws IOException {
+        lock.lock();
+        try {
+            if (!seen.add(authorId)) {
+                return false;
+            }
+            append(queueWriter, authorId);
+            pending.add(authorId);
+            changed.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取出下一个待处理作者；队列暂时为空但仍有作者在处理中时等待（它们可能带来新的合作者），
+     * 队列为空且没有处理中的作者时返回 null
+     */
+    String take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending.isEmpty()) {
+                if (inProgress == 0) {
+                    return null;
+                }
+                changed.await();
+            }
+            inProgress++;
+            return pending.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 占用一篇论文，返回 false 表示已写出或正由其他作者写出
+     * 占用只在内存中，所在页写出成功后随检查点落盘，失败时需要 releaseWorks 归还
+     */
+    boolean claimWork(String workId) {
+        return works.add(workId);
+    }
+
+    /**
+     * 所在页写出失败，归还占用的论文，之后再遇到时重新写出
+     */
+    void releaseWorks(Collection<String> workIds) {
+        works.removeAll(workIds);
+    }
+
+    /**
+     * 一页写出成功后调用：先记录本页写出的论文，再记录下一页游标（为 null 表示已是最后一页，只记录论文）
+     */
+    void checkpoint(String authorId, String cursor, Collection<String> workIds) throws IOException {
+        lock.lock();
+        try {
+            if (!workIds.isEmpty()) {
+                for (String workId : workIds) {
+                    worksWriter.write(workId);
+                    worksWriter.newLine();
+                }
+                worksWriter.flush();
+            }
+            if (cursor != null) {
+                cursors.put(authorId, cursor);
+                append(cursorWriter, authorId + "\t" + cursor);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 上次中断时的翻页游标，没有时返回 null
+     */
+    String cursor(String authorId) {
+        lock.lock();
+        try {
+            return cursors.get(authorId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void complete(String authorId) throws IOException {
+        lock.lock();
+        try {
+            append(doneWriter, authorId);
+            cursors.remove(authorId);
+            completed++;
+            finish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 处理失败：本次运行不再重试，不写 done.log，下次启动时重新入队并从检查点继续
+     */
+    void fail(String authorId) {
+        lock.lock();
+        try {
+            finish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long completedCount() {
+        lock.lock();
+        try {
+            return completed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish() {
+        inProgress--;
+        changed.signalAll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            queueWriter.close();
+            doneWriter.close();
+            cursorWriter.close();
+            worksWriter.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void append(BufferedWriter writer, String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+        writer.flush();
+    }
+
+    private static BufferedWriter appender(Path file) throws IOException {
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static List<String> readLines(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        return Files.readAllLines(file, StandardCharsets.UTF_8).stream().filter(line -> !line.isBlank()).toList();
+    }
+}
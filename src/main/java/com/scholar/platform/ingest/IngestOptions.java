@@ -0,0 +1,53 @@
+package com.scholar.platform.ingest;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OpenAlex 抓取参数，命令行以 --key=value 形式传入，未指定的取默认值
+ *
+ * @param apiBaseUrl        OpenAlex 接口地址（测试时可指向本地模拟服务）
+ * @param mailto            OpenAlex polite pool 联系邮箱，可为空
+ * @param seeds             起始作者 ID（逗号分隔）
+ * @param stateDir          队列、检查点与 JSONL 输出目录
+ * @param requestsPerSecond 全局请求速率上限
+ * @param concurrency       同时处理的作者数
+ * @param perPage           每页论文数（OpenAlex 上限 200）
+ * @param maxAuthors        最多处理的作者数，0 表示不限
+ * @param elasticsearchUrl  ES 地址，为空时只写 JSONL 不建索引
+ * @param worksIndex        论文索引名
+ * @param authorsIndex      作者索引名
+ * @param bulkSize          每次 bulk 请求的文档数
+ */
+public record IngestOptions(String apiBaseUrl, String mailto, List<String> seeds, Path stateDir,
+                            double requestsPerSecond, int concurrency, int perPage, long maxAuthors,
+                            String elasticsearchUrl, String worksIndex, String authorsIndex, int bulkSize) {
+
+    public static IngestOptions fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --key=value: " + arg);
+            }
+            int idx = arg.indexOf('=');
+            values.put(arg.substring(2, idx), arg.substring(idx + 1));
+        }
+        return new IngestOptions(
+                values.getOrDefault("api-base-url", "https://api.openalex.org"),
+                values.get("mailto"),
+                Arrays.stream(values.getOrDefault("seeds", "A5100450462").split(","))
+                        .map(String::trim).filter(s -> !s.isEmpty()).toList(),
+                Path.of(values.getOrDefault("state-dir", "openalex-ingest")),
+                Double.parseDouble(values.getOrDefault("requests-per-second", "8")),
+                Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                Math.min(200, Integer.parseInt(values.getOrDefault("per-page", "200"))),
+                Long.parseLong(values.getOrDefault("max-authors", "0")),
+                values.get("es-url"),
+                values.getOrDefault("works-index", "openalex_works"),
+                values.getOrDefault("authors-index", "openalex_authors"),
+                Integer.parseInt(values.getOrDefault("bulk-size", "500")));
+    }
+}
@@ -0,0 +1,62 @@
+package com.scholar.platform.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 线程安全的 JSONL 追加写：每条记录一行，边抓取边写出，不在内存中积累
+ */
+final class JsonlWriter implements Closeable {
+
+    private final ObjectMapper mapper;
+    private final BufferedWriter writer;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    JsonlWriter(Path file, ObjectMapper mapper) throws IOException {
+        this.mapper = mapper;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    void append(JsonNode record) throws IOException {
+        String line = mapper.writeValueAsString(record);
+        lock.lock();
+        try {
+            writer.write(line);
+            writer.newLine();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 写检查点之前调用，保证检查点之前的记录已经写出
+     */
+    void flush() throws IOException {
+        lock.lock();
+        try {
+            writer.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            writer.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.scholar.platform.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenAlex 接口调用：所有请求先经过全局令牌桶限流；429 和 5xx 按 Retry-After 或指数退避重试
+ * 论文列表使用游标翻页（cursor=*，每页最多 200 条），不受 page 参数 10000 条的上限限制
+ */
+@Slf4j
+final class OpenAlexClient {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * 一页论文与下一页游标，游标为 null 表示已是最后一页
+     */
+    record WorksPage(List<JsonNode> results, String nextCursor) {
+    }
+
+    private final String baseUrl;
+    private final String mailto;
+    private final int perPage;
+    private final ObjectMapper mapper;
+    private final HttpClient httpClient;
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    OpenAlexClient(IngestOptions options, ObjectMapper mapper, HttpClient httpClient, TokenBucketRateLimiter rateLimiter) {
+        this.baseUrl = options.apiBaseUrl().replaceAll("/+$", "");
+        this.mailto = options.mailto();
+        this.perPage = options.perPage();
+        this.mapper = mapper;
+        this.httpClient = httpClient;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * 作者详情，作者不存在时返回 null
+     */
+    JsonNode fetchAuthor(String authorId) throws IOException, InterruptedException {
+        return get(baseUrl + "/authors/" + encode(authorId) + query("?"));
+    }
+
+    WorksPage fetchWorks(String authorId, String cursor) throws IOException, InterruptedException {
+        String url = baseUrl + "/works?filter=author.id:" + encode(authorId)
+                + "&per-page=" + perPage + "&cursor=" + encode(cursor) + query("&");
+        JsonNode root = get(url);
+        if (root == null) {
+            return new WorksPage(List.of(), null);
+        }
+        List<JsonNode> results = new ArrayList<>();
+        root.path("results").forEach(results::add);
+        String next = root.path("meta").path("next_cursor").asText(null);
+        // 空页也视为结束，避免游标异常时原地打转
+        return new WorksPage(results, results.isEmpty() ? null : next);
+    }
+
+    long requestCount() {
+        return requests.get();
+    }
+
+    long retryCount() {
+        return retries.get();
+    }
+
+    private JsonNode get(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire();
+            requests.incrementAndGet();
+            HttpResponse<String> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                backoff(attempt, null);
+                continue;
+            }
+            int status = response.statusCode();
+            if (status == 200) {
+                return mapper.readTree(response.body());
+            }
+            if (status == 404) {
+                return null;
+            }
+            if ((status == 429 || status >= 500) && attempt < MAX_ATTEMPTS) {
+                backoff(attempt, response.headers().firstValue("Retry-After").orElse(null));
+                continue;
+            }
+            throw new IOException("OpenAlex 请求失败, 状态码: " + status + ", url: " + url);
+        }
+    }
+
+    private void backoff(int attempt, String retryAfter) throws InterruptedException {
+        retries.incrementAndGet();
+        long millis = 500L << attempt;
+        if (retryAfter != null) {
+            try {
+                millis = Math.max(millis, Long.parseLong(retryAfter.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                // HTTP 日期格式的 Retry-After 按指数退避处理
+            }
+        }
+        log.debug("OpenAlex 请求重试, 第 {} 次, 等待 {} ms", attempt, millis);
+        Thread.sleep(millis);
+    }
+
+    private String query(String separator) {
+        return mailto == null || mailto.isBlank() ? "" : separator + "mailto=" + encode(mailto);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
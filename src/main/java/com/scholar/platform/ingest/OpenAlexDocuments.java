@@ -0,0 +1,172 @@
+package com.scholar.platform.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 把 OpenAlex 接口返回的原始 JSON 转成 openalex_works / openalex_authors 索引的文档结构
+ * （字段与 Achievement、Author 实体的映射一致）
+ */
+final class OpenAlexDocuments {
+
+    private OpenAlexDocuments() {
+    }
+
+    static ObjectNode toWorkDocument(JsonNode work, ObjectMapper mapper) {
+        ObjectNode doc = mapper.createObjectNode();
+        doc.put("id", work.path("id").asText());
+        putText(doc, "doi", work.path("doi"));
+        putText(doc, "title", work.has("title") ? work.path("title") : work.path("display_name"));
+        putText(doc, "publication_date", work.path("publication_date"));
+        putText(doc, "created_date", work.path("created_date"));
+        putText(doc, "updated_date", work.path("updated_date"));
+        putText(doc, "language", work.path("language"));
+        putText(doc, "landing_page_url", work.path("primary_location").path("landing_page_url"));
+        doc.put("cited_by_count", work.path("cited_by_count").asInt(0));
+
+        ArrayNode authorships = doc.putArray("authorships");
+        Set<String> authorIds = new LinkedHashSet<>();
+        Set<String> authorNames = new LinkedHashSet<>();
+        Set<String> institutionIds = new LinkedHashSet<>();
+        Set<String> institutionNames = new LinkedHashSet<>();
+        for (JsonNode authorship : work.path("authorships")) {
+            ObjectNode out = authorships.addObject();
+            JsonNode author = authorship.path("author");
+            ObjectNode authorOut = out.putObject("author");
+            putText(authorOut, "id", author.path("id"));
+            putText(authorOut, "display_name", author.path("display_name"));
+            putText(authorOut, "orcid", author.path("orcid"));
+            addText(authorIds, author.path("id"));
+            addText(authorNames, author.path("display_name"));
+
+            ArrayNode institutions = out.putArray("institutions");
+            for (JsonNode institution : authorship.path("institutions")) {
+                ObjectNode instOut = institutions.addObject();
+                putText(instOut, "id", institution.path("id"));
+                putText(instOut, "display_name", institution.path("display_name"));
+                putText(instOut, "ror", institution.path("ror"));
+                putText(instOut, "countryCode", institution.path("country_code"));
+                putText(instOut, "type", institution.path("type"));
+                addText(institutionIds, institution.path("id"));
+                addText(institutionNames, institution.path("display_name"));
+            }
+        }
+        doc.put("authors_count", authorIds.size());
+        putArray(doc, "author_ids", authorIds);
+        putArray(doc, "author_names", authorNames);
+        putArray(doc, "institution_ids", institutionIds);
+        putArray(doc, "institution_names", institutionNames);
+
+        Set<String> concepts = new LinkedHashSet<>();
+        for (JsonNode concept : work.path("concepts")) {
+            addText(concepts, concept.path("display_name"));
+        }
+        putArray(doc, "concepts", concepts);
+
+        Set<String> related = new LinkedHashSet<>();
+        for (JsonNode id : work.path("related_works")) {
+            addText(related, id);
+        }
+        putArray(doc, "related_works", related);
+
+        String abstractText = rebuildAbstract(work.path("abstract_inverted_index"));
+        doc.put("has_abstract", abstractText != null);
+        if (abstractText != null) {
+            doc.put("abstract", abstractText);
+        }
+        return doc;
+    }
+
+    static ObjectNode toAuthorDocument(JsonNode author, ObjectMapper mapper) {
+        ObjectNode doc = mapper.createObjectNode();
+        doc.put("id", author.path("id").asText());
+        putText(doc, "display_name", author.path("display_name"));
+        doc.put("works_count", author.path("works_count").asInt(0));
+        doc.put("cited_by_count", author.path("cited_by_count").asInt(0));
+
+        ObjectNode stats = doc.putObject("summary_stats");
+        stats.put("h_index", author.path("summary_stats").path("h_index").asInt(0));
+        stats.put("i10_index", author.path("summary_stats").path("i10_index").asInt(0));
+
+        ArrayNode institutions = doc.putArray("institution");
+        for (JsonNode institution : author.path("last_known_institutions")) {
+            ObjectNode out = institutions.addObject();
+            putText(out, "id", institution.path("id"));
+            putText(out, "display_name", institution.path("display_name"));
+        }
+
+        Set<String> concepts = new LinkedHashSet<>();
+        for (JsonNode concept : author.path("x_concepts")) {
+            addText(concepts, concept.path("display_name"));
+        }
+        putArray(doc, "concept", concepts);
+
+        // 一级学科取研究主题所属的 field，按主题排序（OpenAlex 已按论文数降序）去重
+        Set<String> fields = new LinkedHashSet<>();
+        for (JsonNode topic : author.path("topics")) {
+            addText(fields, topic.path("field").path("display_name"));
+        }
+        putArray(doc, "field", fields);
+        return doc;
+    }
+
+    /**
+     * OpenAlex 以倒排索引（词 -> 位置列表）提供摘要，按位置还原为原文；没有摘要时返回 null
+     */
+    static String rebuildAbstract(JsonNode invertedIndex) {
+        if (invertedIndex == null || !invertedIndex.isObject() || invertedIndex.isEmpty()) {
+            return null;
+        }
+        List<String> words = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = invertedIndex.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            for (JsonNode position : entry.getValue()) {
+                int pos = position.asInt(-1);
+                if (pos < 0) {
+                    continue;
+                }
+                while (words.size() <= pos) {
+                    words.add(null);
+                }
+                words.set(pos, entry.getKey());
+            }
+        }
+        StringBuilder text = new StringBuilder();
+        for (String word : words) {
+            if (word != null) {
+                if (!text.isEmpty()) {
+                    text.append(' ');
+                }
+                text.append(word);
+            }
+        }
+        return text.isEmpty() ? null : text.toString();
+    }
+
+    private static void putText(ObjectNode doc, String field, JsonNode value) {
+        if (value != null && value.isTextual()) {
+            doc.put(field, value.asText());
+        }
+    }
+
+    private static void addText(Set<String> values, JsonNode value) {
+        if (value != null && value.isTextual() && !value.asText().isBlank()) {
+            values.add(value.asText());
+        }
+    }
+
+    private static void putArray(ObjectNode doc, String field, Set<String> values) {
+        ArrayNode array = doc.putArray(field);
+        values.forEach(array::add);
+    }
+}
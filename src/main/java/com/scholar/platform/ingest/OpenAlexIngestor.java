@@ -0,0 +1,186 @@
+package com.scholar.platform.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scholar.platform.util.IdPrefixUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenAlex 合作网络抓取
+ * 从种子作者出发按合作关系广度优先扩展：每位作者在一个虚拟线程中处理（同时处理的作者数由 concurrency 限制，
+ * 请求速率由全局令牌桶限制），论文按游标分页拉取，原始 JSON 边抓取边追加到 works.jsonl / authors.jsonl，
+ * 并可同时 bulk 写入 openalex_works / openalex_authors。
+ * 队列、翻页游标和已写出的论文持久化在 stateDir 中（见 Frontier），中断后以相同参数重新运行即从断点继续。
+ * 每页的 JSONL 和 bulk 都写出成功后才记录检查点，失败的作者下次从检查点重新抓取；
+ * 续抓时中断前最后一页可能重复写入 JSONL，ES 中按文档 ID 写入不会重复。
+ * 合作关系本身不在这里统计，入库后由 CoauthorRelationBuilder 从 openalex_works 生成 author_relation。
+ */
+@Slf4j
+public class OpenAlexIngestor {
+
+    private static final String FIRST_CURSOR = "*";
+
+    /**
+     * 一次运行的统计
+     */
+    public record IngestStats(long authors, long failedAuthors, long works, long pages, long requests,
+                              long indexed, long indexFailures, long elapsedMillis) {
+    }
+
+    private final IngestOptions options;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final AtomicLong authors = new AtomicLong();
+    private final AtomicLong failedAuthors = new AtomicLong();
+    private final AtomicLong works = new AtomicLong();
+    private final AtomicLong pages = new AtomicLong();
+
+    public OpenAlexIngestor(IngestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        IngestStats stats = new OpenAlexIngestor(IngestOptions.fromArgs(args)).run();
+        log.info("抓取结束: {}", stats);
+    }
+
+    public IngestStats run() throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        Path dir = options.stateDir();
+        Files.createDirectories(dir);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             Frontier frontier = Frontier.open(dir);
+             JsonlWriter worksOut = new JsonlWriter(dir.resolve("works.jsonl"), mapper);
+             JsonlWriter authorsOut = new JsonlWriter(dir.resolve("authors.jsonl"), mapper)) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+            TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(options.requestsPerSecond(),
+                    (int) Math.ceil(options.requestsPerSecond()));
+            OpenAlexClient client = new OpenAlexClient(options, mapper, httpClient, rateLimiter);
+            BulkIndexer indexer = options.elasticsearchUrl() == null || options.elasticsearchUrl().isBlank()
+                    ? null : new BulkIndexer(options.elasticsearchUrl(), options.bulkSize(), mapper, httpClient);
+
+            for (String seed : options.seeds()) {
+                frontier.offer(IdPrefixUtil.removeIdPrefix(seed));
+            }
+            log.info("开始抓取: 待处理作者 {} 位, 已完成 {} 位", frontier.pendingCount(), frontier.completedCount());
+
+            Semaphore slots = new Semaphore(Math.max(1, options.concurrency()));
+            long started = 0;
+            while (options.maxAuthors() <= 0 || started < options.maxAuthors()) {
+                slots.acquire();
+                String authorId = frontier.take();
+                if (authorId == null) {
+                    slots.release();
+                    break;
+                }
+                started++;
+                executor.submit(() -> {
+                    try {
+                        processAuthor(authorId, frontier, client, indexer, worksOut, authorsOut);
+                        frontier.complete(authorId);
+                        long done = authors.incrementAndGet();
+                        if (done % 100 == 0) {
+                            log.info("已完成作者 {} 位, 论文 {} 篇, 待处理 {} 位", done, works.get(), frontier.pendingCount());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        frontier.fail(authorId);
+                    } catch (Exception e) {
+                        failedAuthors.incrementAndGet();
+                        frontier.fail(authorId);
+                        log.warn("作者 {} 处理失败, 下次运行时重试: {}", authorId, e.getMessage());
+                    } finally {
+                        slots.release();
+                    }
+                    return null;
+                });
+            }
+            // 等待已提交的作者处理完（不再取新的作者）
+            slots.acquire(Math.max(1, options.concurrency()));
+
+            long indexed = 0;
+            long indexFailures = 0;
+            if (indexer != null) {
+                indexed = indexer.indexedCount();
+                indexFailures = indexer.failedCount();
+            }
+            return new IngestStats(authors.get(), failedAuthors.get(), works.get(), pages.get(),
+                    client.requestCount(), indexed, indexFailures, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 抓取一位作者的详情和全部论文；每页写出后记录下一页游标，合作者加入队列
+     */
+    private void processAuthor(String authorId, Frontier frontier, OpenAlexClient client, BulkIndexer indexer,
+                               JsonlWriter worksOut, JsonlWriter authorsOut) throws IOException, InterruptedException {
+        BulkIndexer.Batch batch = indexer == null ? null : indexer.newBatch();
+        String cursor = frontier.cursor(authorId);
+        if (cursor == null) {
+            // 从头开始处理的作者才写作者详情，断点续抓时已写过
+            JsonNode author = client.fetchAuthor(authorId);
+            if (author != null) {
+                authorsOut.append(author);
+                authorsOut.flush();
+                if (batch != null) {
+                    batch.add(options.authorsIndex(), author.path("id").asText(),
+                            OpenAlexDocuments.toAuthorDocument(author, mapper));
+                }
+            }
+            cursor = FIRST_CURSOR;
+        }
+
+        while (cursor != null) {
+            OpenAlexClient.WorksPage page = client.fetchWorks(authorId, cursor);
+            pages.incrementAndGet();
+            List<String> written = new ArrayList<>();
+            try {
+                for (JsonNode work : page.results()) {
+                    String workId = work.path("id").asText();
+                    if (workId.isEmpty() || !frontier.claimWork(workId)) {
+                        continue;
+                    }
+                    written.add(workId);
+                    worksOut.append(work);
+                    if (batch != null) {
+                        batch.add(options.worksIndex(), workId, OpenAlexDocuments.toWorkDocument(work, mapper));
+                    }
+                    for (JsonNode authorship : work.path("authorships")) {
+                        String coauthorId = authorship.path("author").path("id").asText(null);
+                        if (coauthorId != null) {
+                            frontier.offer(IdPrefixUtil.removeIdPrefix(coauthorId));
+                        }
+                    }
+                }
+                worksOut.flush();
+                if (batch != null) {
+                    batch.flush();
+                }
+            } catch (Exception e) {
+                // 本页没有完整写出，归还论文，由之后遇到它们的作者（或下次运行时本作者）重新写出
+                frontier.releaseWorks(written);
+                throw e;
+            }
+            works.addAndGet(written.size());
+            cursor = page.nextCursor();
+            frontier.checkpoint(authorId, cursor, written);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.scholar.platform.repository;
+
+import com.scholar.platform.entity.JobWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+}
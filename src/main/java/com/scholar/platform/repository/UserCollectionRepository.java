@@ -2,8 +2,10 @@ package com.scholar.platform.repository;
 
 import com.scholar.platform.entity.UserCollection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +16,10 @@ public interface UserCollectionRepository extends JpaRepository<UserCollection,
   List<UserCollection> findByAchievementId(String achievementId);
 
   boolean existsByUserIdAndAchievementId(String userId, String achievementId);
+
+  /**
+   * 批量查询某用户在给定成果ID中已收藏的部分（按邮箱关联用户，一次 IN 查询完成）
+   */
+  @Query("SELECT uc.achievementId FROM UserCollection uc WHERE uc.user.email = :email AND uc.achievementId IN :achievementIds")
+  List<String> findFavouriteAchievementIds(String email, Collection<String> achievementIds);
 }
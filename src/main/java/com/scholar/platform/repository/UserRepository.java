@@ -4,6 +4,7 @@ import com.scholar.platform.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +17,6 @@ public interface UserRepository extends JpaRepository<User, String> {
   boolean existsByEmail(String email);
 
   boolean existsByUsername(String username);
+
+  List<User> findByCertificationStatus(User.CertificationStatus certificationStatus);
 }
@@ -0,0 +1,110 @@
+package com.scholar.platform.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.ByQueryResponse;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 成果热度特征的维护
+ * 排序模式为 feature 时，热度分预先计算并存入 openalex_works 的 rank_feature 字段 popularity，
+ * 检索时与 BM25 原生组合，不再对每个命中文档执行 painless 脚本
+ * 热度分 = 1 + (log(1+cited_by_count)×12 + log(1+favouriteCount)×3 + log(1+readCount)×2) / 3
+ * 计算时同时记下三个输入的指纹 popularity_inputs，定时任务据此找出输入已变化（如重新入库更新了被引数）的文档重算
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AchievementPopularityService {
+
+    public static final String POPULARITY_FIELD = "popularity";
+    public static final String POPULARITY_INPUTS_FIELD = "popularity_inputs";
+
+    /**
+     * 在更新脚本上下文（ctx._source）中按当前计数重算热度分，并记下输入指纹
+     */
+    public static final String POPULARITY_UPDATE_SCRIPT = "long c = ctx._source.cited_by_count == null ? 0 : ((Number) ctx._source.cited_by_count).longValue(); " +
+            "long f = ctx._source.favouriteCount == null ? 0 : ((Number) ctx._source.favouriteCount).longValue(); " +
+            "long r = ctx._source.readCount == null ? 0 : ((Number) ctx._source.readCount).longValue(); " +
+            "ctx._source.popularity = 1.0 + (Math.log1p(c) * 12 + Math.log1p(f) * 3 + Math.log1p(r) * 2) / 3.0; " +
+            "ctx._source.popularity_inputs = (c * 1000003L + f) * 1000003L + r;";
+
+    /**
+     * 查询上下文（doc values）中判断热度分是否需要重算：没有指纹，或指纹与当前计数不一致
+     */
+    private static final String POPULARITY_STALE_SCRIPT = "long c = doc['cited_by_count'].size() == 0 ? 0 : doc['cited_by_count'].value; " +
+            "long f = doc['favouriteCount'].size() == 0 ? 0 : doc['favouriteCount'].value; " +
+            "long r = doc['readCount'].size() == 0 ? 0 : doc['readCount'].value; " +
+            "return doc['popularity_inputs'].size() == 0 || doc['popularity_inputs'].value != (c * 1000003L + f) * 1000003L + r;";
+
+    private static final IndexCoordinates INDEX = IndexCoordinates.of("openalex_works");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    @Value("${search.ranking.mode:script}")
+    private String rankingMode;
+
+    @Value("${search.ranking.refresh-batch-size:50000}")
+    private int refreshBatchSize;
+
+    private volatile boolean mappingReady;
+
+    public boolean isFeatureMode() {
+        return "feature".equalsIgnoreCase(rankingMode);
+    }
+
+    /**
+     * 给热度分缺失或已过期的文档重算：新入库的成果、重新入库后被引数变化的成果；
+     * 阅读/收藏数变化由计数写回时顺带重算，这里只兜底写回之外的更新
+     */
+    @Scheduled(initialDelayString = "${search.ranking.refresh-initial-delay-ms:60000}",
+            fixedDelayString = "${search.ranking.refresh-interval-ms:3600000}")
+    public void refreshStalePopularity() {
+        if (!isFeatureMode()) {
+            return;
+        }
+        try {
+            ensureMapping();
+            NativeQuery stale = NativeQuery.builder()
+                    .withQuery(q -> q.bool(b -> b.filter(f -> f.script(s -> s
+                            .script(sc -> sc.inline(i -> i.source(POPULARITY_STALE_SCRIPT).lang("painless")))))))
+                    .build();
+            UpdateQuery updateQuery = UpdateQuery.builder(stale)
+                    .withScript(POPULARITY_UPDATE_SCRIPT)
+                    .withLang("painless")
+                    .withScriptType(ScriptType.INLINE)
+                    .withAbortOnVersionConflict(false)
+                    .withMaxDocs(refreshBatchSize)
+                    .build();
+
+            long start = System.currentTimeMillis();
+            ByQueryResponse response = elasticsearchOperations.updateByQuery(updateQuery, INDEX);
+            log.info("热度特征重算完成: 更新 {} 条, 耗时 {} ms", response.getUpdated(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("热度特征重算失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * popularity 必须先映射为 rank_feature，否则首次写入会被动态映射成 float；
+     * 指纹映射为 long，查询脚本读取 doc values 前字段必须已存在
+     */
+    public void ensureMapping() {
+        if (mappingReady) {
+            return;
+        }
+        elasticsearchOperations.indexOps(INDEX)
+                .putMapping(Document.parse("{\"properties\":{\"" + POPULARITY_FIELD + "\":{\"type\":\"rank_feature\"},\""
+                        + POPULARITY_INPUTS_FIELD + "\":{\"type\":\"long\"}}}"));
+        mappingReady = true;
+    }
+}
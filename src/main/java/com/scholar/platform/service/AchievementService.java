@@ -1,22 +1,31 @@
 package com.scholar.platform.service;
 
 import com.scholar.platform.dto.AchievementDTO;
+import com.scholar.platform.dto.PageResponse;
 import com.scholar.platform.entity.*;
 import com.scholar.platform.repository.*;
 import com.scholar.platform.service.cache.CachedPage;
+import com.scholar.platform.service.cache.NameIdResolver;
 import com.scholar.platform.service.cache.SearchCacheService;
+import com.scholar.platform.service.counter.AchievementCounterBuffer;
 import com.scholar.platform.util.CacheKeyUtil;
+import com.scholar.platform.util.SearchCursorUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
-import org.springframework.data.elasticsearch.core.query.ScriptType;
-import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -27,25 +36,44 @@ import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.json.JsonData;
 import co.elastic.clients.elasticsearch._types.query_dsl.*;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Sort;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class AchievementService {
 
     private final AchievementRepository achievementRepository;
-    private final InstitutionRepository institutionRepository;
-    private final AuthorRepository authorRepository;
     // private final ConceptRepository conceptRepository;
-    private final PaperKeywordRepository paperKeywordRepository;
     private final ElasticsearchOperations elasticsearchOperations;
     private final UserRepository userRepository;
     private final UserCollectionRepository userCollectionRepository;
     private final TranslationService translationService;
     private final SearchCacheService searchCacheService;
+    private final NameIdResolver nameIdResolver;
+    private final PopularConceptService popularConceptService;
+    private final AchievementCounterBuffer achievementCounterBuffer;
+    private final AchievementPopularityService achievementPopularityService;
+
+    @Value("${search.ranking.feature-boost:10}")
+    private float popularityBoost;
+
+    private static final IndexCoordinates WORKS_INDEX = IndexCoordinates.of("openalex_works");
+    private static final Duration PIT_KEEP_ALIVE = Duration.ofMinutes(2);
+    private static final String SEARCH_CONTEXT_MISSING = "search_context_missing_exception";
+
+    /**
+     * 列表页只需要的 _source 字段；嵌套的 authorships 和 related_works 只在详情页（getById）读取
+     */
+    private static final SourceFilter LIST_VIEW_SOURCE = new FetchSourceFilterBuilder()
+            .withIncludes("doi", "title", "publication_date", "cited_by_count", "language", "concepts",
+                    "landing_page_url", "abstract", "favouriteCount", "readCount",
+                    "author_ids", "institution_ids", "author_names", "institution_names")
+            .build();
 
     /**
      * 通过关键词搜索（带加权排序）
@@ -58,16 +86,12 @@ public class AchievementService {
             throw new IllegalArgumentException("请输入检索内容");
         }
 
-        if (translationService.containsChinese(keyword)) {
-            String translatedKeyword = translationService.translateToEnglish(keyword);
-            if (!keyword.equals(translatedKeyword)) {
-                return achievementRepository.searchByTwoKeywords(keyword, translatedKeyword, pageable)
-                        .map(this::toDTO);
-            }
+        String translatedKeyword = translateKeyword(keyword);
+        if (translatedKeyword != null) {
+            return toDtoPage(achievementRepository.searchByTwoKeywords(keyword, translatedKeyword, pageable));
         }
 
-        return achievementRepository.searchByKeywordWithSpaceSupport(keyword, pageable)
-                .map(this::toDTO);
+        return toDtoPage(achievementRepository.searchByKeywordWithSpaceSupport(keyword, pageable));
     }
 
     /**
@@ -78,8 +102,7 @@ public class AchievementService {
         if (concept == null || concept.trim().isEmpty()) {
             throw new IllegalArgumentException("请输入检索内容");
         }
-        return achievementRepository.findByConceptsExactMatch(concept, pageable)
-                .map(this::toDTO);
+        return toDtoPage(achievementRepository.findByConceptsExactMatch(concept, pageable));
     }
 
     /**
@@ -90,8 +113,7 @@ public class AchievementService {
             throw new IllegalArgumentException("起止时间不能为空");
         }
         // 由于时间范围检索没有关键词，使用非加权版本
-        return achievementRepository.findByPublicationDateBetween(startDate, endDate, pageable)
-                .map(this::toDTO);
+        return toDtoPage(achievementRepository.findByPublicationDateBetween(startDate, endDate, pageable));
     }
 
     /**
@@ -115,34 +137,164 @@ public class AchievementService {
             Pageable pageable) {
         String cacheKey = CacheKeyUtil.advancedSearchKey(keyword, field, startDate, endDate, authorName,
                 institutionName, sortBy, sortOrder, pageable);
-        CachedPage<Achievement> cachedPage = searchCacheService.get(cacheKey);
-        if (cachedPage != null) {
-            return toDtoPageFromCache(cachedPage, pageable);
+        // 同一 key 的并发未命中只会触发一次 ES 查询
+        CachedPage<Achievement> cachedPage = searchCacheService.getOrLoad(cacheKey,
+                () -> searchAchievements(keyword, field, startDate, endDate, authorName, institutionName,
+                        sortBy, sortOrder, pageable));
+        return toDtoPageFromCache(cachedPage, pageable);
+    }
+
+    /**
+     * 预热首页（无检索条件、默认排序、第一页）的检索缓存
+     * 刷新间隔短于缓存 TTL，首页请求始终命中缓存；热门概念变化后也会在下一轮刷新中生效
+     */
+    @Scheduled(initialDelayString = "${search.landing-warmup.initial-delay-ms:10000}",
+            fixedDelayString = "${search.landing-warmup.interval-ms:240000}")
+    public void warmLandingPage() {
+        Pageable pageable = PageRequest.of(0, 10);
+        String cacheKey = CacheKeyUtil.advancedSearchKey(null, null, null, null, null, null, null, "desc", pageable);
+        try {
+            searchCacheService.refresh(cacheKey,
+                    () -> searchAchievements(null, null, null, null, null, null, null, "desc", pageable));
+        } catch (Exception e) {
+            log.warn("首页检索缓存预热失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 执行高级检索的 ES 查询，返回可缓存的原始结果页
+     */
+    private CachedPage<Achievement> searchAchievements(String keyword, String field,
+            String startDate, String endDate,
+            String authorName, String institutionName,
+            String sortBy, String sortOrder,
+            Pageable pageable) {
+        NativeQueryBuilder queryBuilder = new NativeQueryBuilder()
+                .withQuery(buildSearchQuery(keyword, field, startDate, endDate, authorName, institutionName))
+                .withSourceFilter(LIST_VIEW_SOURCE)
+                .withPageable(pageable);
+
+        Sort sort = resolveSort(sortBy, sortOrder);
+        if (sort.isSorted()) {
+            queryBuilder.withSort(sort);
+        }
+
+        NativeQuery nativeQuery = queryBuilder.build();
+
+        // System.out.println("NativeQuery: " + nativeQuery.getQuery().toString());
+
+        SearchHits<Achievement> hits = elasticsearchOperations.search(nativeQuery, Achievement.class);
+        List<Achievement> achievements = hits.getSearchHits().stream()
+            .map(hit -> hit.getContent())
+            .collect(Collectors.toList());
+
+        return CachedPage.of(achievements, hits.getTotalHits());
+    }
+
+    /**
+     * 游标分页检索（point-in-time + search_after）
+     * 深翻页时每页成本恒定，不需要 ES 在各分片上收集 from+size 条结果；结果不走检索缓存
+     *
+     * @param cursor 上一页返回的 nextCursor，为空表示从第一页开始
+     */
+    public PageResponse<AchievementDTO> searchAfter(String keyword, String field,
+            String startDate, String endDate,
+            String authorName, String institutionName,
+            String sortBy, String sortOrder,
+            int size, String cursor) {
+        String fingerprint = SearchCursorUtil.fingerprint(keyword, field, startDate, endDate,
+                authorName, institutionName, sortBy, sortOrder);
+        SearchCursorUtil.SearchCursor current = (cursor == null || cursor.isBlank())
+                ? null : SearchCursorUtil.decode(cursor, fingerprint);
+        String pitId = current != null ? current.pitId()
+                : elasticsearchOperations.openPointInTime(WORKS_INDEX, PIT_KEEP_ALIVE);
+        int pageNumber = current != null ? current.page() : 0;
+
+        // 有 PIT 时 ES 会自动追加 _shard_doc 作为并列排序的决胜字段
+        Sort sort = resolveSort(sortBy, sortOrder);
+        NativeQueryBuilder queryBuilder = new NativeQueryBuilder()
+                .withQuery(buildSearchQuery(keyword, field, startDate, endDate, authorName, institutionName))
+                .withSourceFilter(LIST_VIEW_SOURCE)
+                .withPointInTime(new org.springframework.data.elasticsearch.core.query.Query.PointInTime(pitId,
+                        PIT_KEEP_ALIVE))
+                .withSort(sort.isSorted() ? sort : Sort.by(Sort.Direction.DESC, "_score"))
+                .withPageable(PageRequest.of(0, size));
+        if (current != null) {
+            queryBuilder.withSearchAfter(current.searchAfter());
         }
 
-        // 1. 预先解析 ID (暂缓搜索)
-        String institutionId = null;
-        if (institutionName != null && !institutionName.trim().isEmpty()) {
-            Page<Institution> institutions = institutionRepository.findByDisplayName(institutionName,
-                    Pageable.ofSize(1));
-            if (institutions.hasContent()) {
-                institutionId = institutions.getContent().get(0).getId();
+        SearchHits<Achievement> hits;
+        try {
+            hits = elasticsearchOperations.search(queryBuilder.build(), Achievement.class);
+        } catch (RuntimeException e) {
+            if (current == null) {
+                // 第一页就失败，刚打开的 PIT 不会再被使用
+                closePointInTimeQuietly(pitId);
+            } else if (isSearchContextMissing(e)) {
+                throw new IllegalArgumentException("游标已失效，请重新检索");
             }
+            throw e;
+        }
+
+        List<Achievement> achievements = hits.getSearchHits().stream()
+                .map(SearchHit::getContent)
+                .collect(Collectors.toList());
+        String nextPitId = hits.getPointInTimeId() != null ? hits.getPointInTimeId() : pitId;
+
+        String nextCursor = null;
+        if (hits.getSearchHits().size() < size) {
+            closePointInTimeQuietly(nextPitId);
+        } else {
+            List<Object> sortValues = hits.getSearchHits().get(hits.getSearchHits().size() - 1).getSortValues();
+            nextCursor = SearchCursorUtil.encode(new SearchCursorUtil.SearchCursor(nextPitId, sortValues,
+                    pageNumber + 1, fingerprint));
         }
 
-        String authorId = null;
-        if (authorName != null && !authorName.trim().isEmpty()) {
-            Page<Author> authors = authorRepository.findByDisplayName(authorName, Pageable.ofSize(1));
-            if (authors.hasContent()) {
-                authorId = authors.getContent().get(0).getId();
+        return PageResponse.ofCursor(toDTOs(achievements), pageNumber, size, hits.getTotalHits(), nextCursor);
+    }
+
+    /**
+     * PIT 过期或已关闭时 ES 返回 search_context_missing_exception，其余错误照常抛出
+     */
+    private static boolean isSearchContextMissing(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains(SEARCH_CONTEXT_MISSING)) {
+                return true;
+            }
+            // 分片级错误时顶层类型是 search_phase_execution_exception，具体原因在 root_cause 里
+            if (t instanceof co.elastic.clients.elasticsearch._types.ElasticsearchException esException
+                    && esException.error().rootCause().stream()
+                    .anyMatch(cause -> SEARCH_CONTEXT_MISSING.equals(cause.type()))) {
+                return true;
             }
         }
+        return false;
+    }
+
+    private void closePointInTimeQuietly(String pitId) {
+        try {
+            elasticsearchOperations.closePointInTime(pitId);
+        } catch (Exception e) {
+            // PIT 到期后会被 ES 自动回收
+        }
+    }
+
+    /**
+     * 构建高级检索的查询条件（评分查询 + 过滤器）
+     */
+    private Query buildSearchQuery(String keyword, String field,
+            String startDate, String endDate,
+            String authorName, String institutionName) {
+        // 1. 预先解析 ID（带缓存，作者与机构并行查询）
+        NameIdResolver.ResolvedIds resolvedIds = nameIdResolver.resolve(authorName, institutionName);
+        String institutionId = resolvedIds.institutionId();
+        String authorId = resolvedIds.authorId();
 
         // 2. 构建核心 Bool 查询
         BoolQuery.Builder boolBuilder = new BoolQuery.Builder();
 
         // 3. 构建 Function Score 评分查询
-        Query mainQuery = buildScoredQuery(keyword);
+        Query mainQuery = buildScoredQuery(keyword, translateKeyword(keyword));
         boolBuilder.must(mainQuery);
 
         // 4. 添加各种过滤器 (Filters)
@@ -192,33 +344,19 @@ public class AchievementService {
         }
 
         boolBuilder.filter(filters);
+        return boolBuilder.build()._toQuery();
+    }
 
-        // 6. 执行 NativeQuery
-        NativeQueryBuilder queryBuilder = new NativeQueryBuilder()
-                .withQuery(boolBuilder.build()._toQuery())
-                .withPageable(pageable);
-
+    private Sort resolveSort(String sortBy, String sortOrder) {
         if (sortBy != null && !sortBy.trim().isEmpty()) {
             Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
             if ("date".equalsIgnoreCase(sortBy) || "publicationDate".equalsIgnoreCase(sortBy)) {
-                queryBuilder.withSort(Sort.by(direction, "publication_date"));
+                return Sort.by(direction, "publication_date");
             } else if ("citation".equalsIgnoreCase(sortBy) || "citedByCount".equalsIgnoreCase(sortBy)) {
-                queryBuilder.withSort(Sort.by(direction, "cited_by_count"));
+                return Sort.by(direction, "cited_by_count");
             }
         }
-
-        NativeQuery nativeQuery = queryBuilder.build();
-
-        // System.out.println("NativeQuery: " + nativeQuery.getQuery().toString());
-
-        SearchHits<Achievement> hits = elasticsearchOperations.search(nativeQuery, Achievement.class);
-        List<Achievement> achievements = hits.getSearchHits().stream()
-            .map(hit -> hit.getContent())
-            .collect(Collectors.toList());
-
-        searchCacheService.put(cacheKey, CachedPage.of(achievements, hits.getTotalHits()));
-
-        return toDtoPage(achievements, pageable, hits.getTotalHits());
+        return Sort.unsorted();
     }
 
     private Page<AchievementDTO> toDtoPageFromCache(CachedPage<Achievement> cachedPage, Pageable pageable) {
@@ -230,16 +368,30 @@ public class AchievementService {
     }
 
     private Page<AchievementDTO> toDtoPage(List<Achievement> achievements, Pageable pageable, long total) {
-        List<AchievementDTO> list = achievements.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
-        return new PageImpl<>(list, pageable, total);
+        return new PageImpl<>(toDTOs(achievements), pageable, total);
+    }
+
+    private Page<AchievementDTO> toDtoPage(Page<Achievement> page) {
+        return new PageImpl<>(toDTOs(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * 含中文的关键词翻译为英文，无需翻译或翻译结果与原文相同时返回 null
+     */
+    private String translateKeyword(String keyword) {
+        if (keyword == null || !translationService.containsChinese(keyword)) {
+            return null;
+        }
+        String translated = translationService.translateToEnglish(keyword);
+        return keyword.equals(translated) ? null : translated;
     }
 
     /**
      * 构建带权重的评分查询
+     *
+     * @param translated 关键词的英文译文，由调用方翻译一次后传入，可为 null
      */
-    private Query buildScoredQuery(String keyword) {
+    private Query buildScoredQuery(String keyword, String translated) {
         Query baseQuery;
 
         // 构建基础查询（使用BM25相关度）
@@ -259,9 +411,7 @@ public class AchievementService {
                         .boost(2.0f)));
 
                 // 处理中英翻译加权
-                if (translationService != null && translationService.containsChinese(keyword)) {
-                    String translated = translationService.translateToEnglish(keyword);
-
+                if (translated != null) {
                     // 翻译后的title查询
                     b.should(s -> s.match(m -> m
                             .field("title")
@@ -283,13 +433,21 @@ public class AchievementService {
             baseQuery = QueryBuilders.matchAll(m -> m);
         }
 
-        // 简化脚本 - 假设三个count字段都确保存在
+        // feature 模式：预先计算的 rank_feature 热度分与 BM25 原生相加，不对命中文档逐个执行脚本
+        if (achievementPopularityService.isFeatureMode()) {
+            Query popularity = QueryBuilders.rankFeature(r -> r
+                    .field(AchievementPopularityService.POPULARITY_FIELD)
+                    .boost(popularityBoost));
+            return QueryBuilders.bool(b -> b.must(baseQuery).should(popularity));
+        }
+
+        // script 模式：按当前计数逐文档计算，字段名与索引映射保持一致
         String scriptCode = "double c = " +
-                "doc.containsKey('citedByCount') ? " +
-                "Math.log1p(doc['citedByCount'].value) * 12 : 0.0; " +
-                "double f = doc.containsKey('favouriteCount') ?" +
+                "doc.containsKey('cited_by_count') && doc['cited_by_count'].size() > 0 ? " +
+                "Math.log1p(doc['cited_by_count'].value) * 12 : 0.0; " +
+                "double f = doc.containsKey('favouriteCount') && doc['favouriteCount'].size() > 0 ?" +
                 " Math.log1p(doc['favouriteCount'].value) * 3 : 0.0; " +
-                "double r = doc.containsKey('readCount') ?" +
+                "double r = doc.containsKey('readCount') && doc['readCount'].size() > 0 ?" +
                 " Math.log1p(doc['readCount'].value) * 2 : 0.0; " +
                 "return 1.0 + (c + f + r) / 3.0;";
 
@@ -335,15 +493,15 @@ public class AchievementService {
     }
 
     private Query getPopularConceptFilter() {
-        PaperKeyword pk = paperKeywordRepository.findFirstByOrderByCntDesc();
+        String concept = popularConceptService.getTopConcept();
 
         // 简单的 null 检查
-        Objects.requireNonNull(pk, "搜索内容不能为空且系统暂无推荐数据");
+        Objects.requireNonNull(concept, "搜索内容不能为空且系统暂无推荐数据");
 
         // 直接返回 term 查询
         return QueryBuilders.match(m -> m
             .field("concepts")
-            .query(pk.getKeyword()));
+            .query(concept));
     }
 
     // /**
@@ -419,10 +577,10 @@ public class AchievementService {
 
     /**
      * 增加成果的阅读次数
-     * 使用 Elasticsearch 脚本进行原子更新，避免并发覆盖问题
+     * 增量先进入写回缓冲，定时批量写回 ES，详情请求不再同步等待 ES 写入
      */
     private void incrementReadCount(Achievement achievement) {
-        updateEsFieldCount(achievement.getId(), "readCount", 1);
+        updateEsFieldCount(achievement.getId(), AchievementCounterBuffer.READ_COUNT, 1);
 
         if (achievement.getReadCount() == null) {
             achievement.setReadCount(1);
@@ -433,70 +591,67 @@ public class AchievementService {
 
     public List<AchievementDTO> getByIds(List<String> ids) {
         List<String> prefixedIds = ids.stream().map(IdPrefixUtil::ensureIdPrefix).collect(Collectors.toList());
-        Iterable<Achievement> achievements = achievementRepository.findAllById(prefixedIds);
-        List<AchievementDTO> dtos = new ArrayList<>();
-        achievements.forEach(a -> dtos.add(toDTO(a)));
-        return dtos;
+        List<Achievement> achievements = new ArrayList<>();
+        achievementRepository.findAllById(prefixedIds).forEach(achievements::add);
+        return toDTOs(achievements);
     }
 
     public void incrementFavouriteCount(String achievementId) {
-        updateEsFieldCount(IdPrefixUtil.ensureIdPrefix(achievementId), "favouriteCount", 1);
+        updateEsFieldCount(IdPrefixUtil.ensureIdPrefix(achievementId), AchievementCounterBuffer.FAVOURITE_COUNT, 1);
     }
 
     public void decrementFavouriteCount(String achievementId) {
-        updateEsFieldCount(IdPrefixUtil.ensureIdPrefix(achievementId), "favouriteCount", -1);
+        updateEsFieldCount(IdPrefixUtil.ensureIdPrefix(achievementId), AchievementCounterBuffer.FAVOURITE_COUNT, -1);
     }
 
     private void updateEsFieldCount(String id, String field, int delta) {
-        try {
-            String scriptCode;
-            if (delta > 0) {
-                scriptCode = String.format(
-                        "if (ctx._source.%s == null) { ctx._source.%s = %d } else { ctx._source.%s += %d }", field,
-                        field, delta, field, delta);
-            } else {
-                scriptCode = String.format("if (ctx._source.%s != null && ctx._source.%s > 0) { ctx._source.%s += %d }",
-                        field, field, field, delta);
-            }
-
-            UpdateQuery updateQuery = UpdateQuery.builder(id)
-                    .withScript(scriptCode)
-                    .withLang("painless")
-                    .withScriptType(ScriptType.INLINE)
-                    .build();
-
-            elasticsearchOperations.update(updateQuery, IndexCoordinates.of("openalex_works"));
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Failed to update " + field + " for achievement: " + id + ", error: " + e.getMessage());
-        }
+        // 只记入内存缓冲，由 AchievementCounterBuffer 定时聚合后批量写回 ES
+        achievementCounterBuffer.increment(id, field, delta);
     }
 
     /**
      * 转换为DTO，提取作者信息
      */
     public AchievementDTO toDTO(Achievement achievement) {
-        AchievementDTO dto = Achievement.toDTO(achievement);
+        return toDTOs(List.of(achievement)).get(0);
+    }
+
+    /**
+     * 批量转换为DTO
+     * 整页只解析一次当前用户，并用一次 IN 查询取回该页的收藏标记，避免逐条查询
+     */
+    public List<AchievementDTO> toDTOs(List<Achievement> achievements) {
+        List<AchievementDTO> dtos = achievements.stream()
+                .map(Achievement::toDTO)
+                .collect(Collectors.toList());
+        if (dtos.isEmpty()) {
+            return dtos;
+        }
 
-        // Check if current user has favourited this achievement
+        Set<String> favouriteIds = resolveFavouriteIds(dtos);
+        dtos.forEach(dto -> dto.setIsFavourite(favouriteIds.contains(dto.getId())));
+        return dtos;
+    }
+
+    private Set<String> resolveFavouriteIds(List<AchievementDTO> dtos) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.isAuthenticated()
-                    && !"anonymousUser".equals(authentication.getPrincipal())) {
-                String email = authentication.getName();
-                userRepository.findByEmail(email).ifPresent(user -> {
-                    boolean isFav = userCollectionRepository.existsByUserIdAndAchievementId(user.getId(),
-                            IdPrefixUtil.removeIdPrefix(achievement.getId()));
-                    dto.setIsFavourite(isFav);
-                });
-            } else {
-                dto.setIsFavourite(false);
+            if (authentication == null || !authentication.isAuthenticated()
+                    || "anonymousUser".equals(authentication.getPrincipal())) {
+                return Collections.emptySet();
+            }
+            Set<String> achievementIds = dtos.stream()
+                    .map(AchievementDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            if (achievementIds.isEmpty()) {
+                return Collections.emptySet();
             }
+            return new HashSet<>(userCollectionRepository.findFavouriteAchievementIds(authentication.getName(),
+                    achievementIds));
         } catch (Exception e) {
-            dto.setIsFavourite(false);
+            return Collections.emptySet();
         }
-        return dto;
-
     }
 
     public List<AchievementDTO> getPendingAchievements() {
@@ -1,6 +1,8 @@
 package com.scholar.platform.service;
 
 import com.scholar.platform.dto.AuthorInfluenceDTO;
+import com.scholar.platform.dto.CoauthorDTO;
+import com.scholar.platform.dto.CollaborationNetworkDTO;
 import com.scholar.platform.dto.ScholarRankingDTO;
 import com.scholar.platform.entity.Author;
 import com.scholar.platform.entity.ScholarInfluence;
@@ -9,27 +11,35 @@ import com.scholar.platform.entity.User;
 import com.scholar.platform.repository.AuthorRepository;
 import com.scholar.platform.repository.ScholarInfluenceRepository;
 import com.scholar.platform.repository.UserRepository;
+import com.scholar.platform.service.cache.LeaderboardCache;
+import com.scholar.platform.service.graph.CoauthorGraphService;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.scholar.platform.repository.ScholarRankingRepository;
 import org.springframework.data.domain.Sort;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.data.domain.Page;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 import com.scholar.platform.dto.AuthorRelationDTO;
 import com.scholar.platform.entity.AuthorRelation;
 import com.scholar.platform.repository.AuthorRelationRepository;
 
-import java.util.Collections;
-import java.util.Arrays;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -41,22 +51,140 @@ public class AnalysisAuthorService {
     private final ScholarRankingRepository scholarRankingRepository;
     private final AuthorRelationRepository authorRelationRepository;
     
-    private final JdbcTemplate jdbcTemplate;
-    @Transactional
+    private final LeaderboardCache leaderboardCache;
+    private final CoauthorGraphService coauthorGraphService;
+    private final ThreadPoolTaskExecutor influenceExecutor;
+    private final ThreadPoolTaskExecutor influenceWarmExecutor;
+
+    @Value("${influence.cache.max-size:10000}")
+    private long influenceCacheMaxSize;
+
+    @Value("${influence.cache.refresh-after-minutes:360}")
+    private long influenceRefreshMinutes;
+
+    @Value("${influence.cache.expire-after-minutes:1440}")
+    private long influenceExpireMinutes;
+
+    /**
+     * 学者影响力读穿缓存：未命中时先读 MySQL 中的 scholar_influence，
+     * 写入超过 refresh-after 后的下一次读取仍返回旧值，同时在 influenceExecutor 上异步从 ES 重新获取并落库；
+     * 线程池队列满时刷新提交被拒绝（Caffeine 记录后放弃本次刷新），继续返回旧值，之后的读取会再次尝试
+     */
+    private LoadingCache<String, AuthorInfluenceDTO> influenceCache;
+
+    /** 正在后台首次计算影响力的用户，避免同一用户重复提交 */
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void initInfluenceCache() {
+        influenceCache = Caffeine.newBuilder()
+                .maximumSize(influenceCacheMaxSize)
+                .refreshAfterWrite(Duration.ofMinutes(influenceRefreshMinutes))
+                .expireAfterWrite(Duration.ofMinutes(influenceExpireMinutes))
+                .executor(influenceExecutor)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public AuthorInfluenceDTO load(String userId) {
+                        return loadInfluence(userId);
+                    }
+
+                    @Override
+                    public AuthorInfluenceDTO reload(String userId, AuthorInfluenceDTO oldValue) {
+                        return refreshFromEs(userId);
+                    }
+                });
+    }
+
+    /**
+     * 从未计算过的用户先返回 pending 结果，计算在后台进行，完成后写入缓存
+     */
     public AuthorInfluenceDTO getAuthorTrend(String userId) {
-        // 1. 尝试从 MySQL 缓存表中获取
+        AuthorInfluenceDTO influence = influenceCache.get(userId);
+        if (influence.isPending()) {
+            scheduleFirstRefresh(userId);
+        }
+        return influence;
+    }
+
+    /**
+     * 不在缓存加载过程中提交，加载过程中不能写同一个键；线程池队列满时放弃，缓存中仍是 pending 结果，下一次读取会再次提交
+     */
+    private void scheduleFirstRefresh(String userId) {
+        if (!pendingRefreshes.add(userId)) {
+            return;
+        }
+        try {
+            influenceExecutor.execute(() -> {
+                try {
+                    influenceCache.put(userId, refreshFromEs(userId));
+                } catch (Exception e) {
+                    log.warn("计算学者影响力失败, userId: {}, 错误: {}", userId, e.getMessage());
+                } finally {
+                    pendingRefreshes.remove(userId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pendingRefreshes.remove(userId);
+            log.debug("影响力刷新队列已满, 稍后重试, userId: {}", userId);
+        }
+    }
+
+    /**
+     * 为所有已认证学者预先计算影响力，学者主页读取时直接命中缓存
+     * 在 influenceWarmExecutor 的单个线程中逐个计算，不阻塞调度线程，也不挤占读请求的刷新队列
+     */
+    @Scheduled(cron = "${influence.warm-cron:0 0 4 * * *}")
+    public void warmCertifiedScholars() {
+        try {
+            influenceWarmExecutor.execute(this::warmAll);
+        } catch (TaskRejectedException e) {
+            log.warn("上一轮学者影响力预热尚未结束, 跳过本轮");
+        }
+    }
+
+    private void warmAll() {
+        List<User> scholars = userRepository.findByCertificationStatus(User.CertificationStatus.CERTIFIED);
+        log.info("开始预热学者影响力: {} 位已认证学者", scholars.size());
+        int failed = 0;
+        for (User user : scholars) {
+            try {
+                influenceCache.put(user.getId(), refreshFromEs(user));
+            } catch (Exception e) {
+                failed++;
+                log.warn("预热学者影响力失败, userId: {}, 错误: {}", user.getId(), e.getMessage());
+            }
+        }
+        log.info("学者影响力预热完成: {} 位, 失败 {} 位", scholars.size(), failed);
+    }
+
+    /**
+     * 缓存未命中：优先使用 MySQL 中已有的结果；从未计算过的用户不在请求线程查询 ES，
+     * 返回 pending 结果，由 getAuthorTrend 提交后台计算。用户不存在时直接报错，不进入缓存
+     */
+    private AuthorInfluenceDTO loadInfluence(String userId) {
         return scholarInfluenceRepository.findById(userId)
                 .map(this::toDTO)
-                .orElseGet(() -> fetchFromEsAndSave(userId));
+                .orElseGet(() -> {
+                    if (!userRepository.existsById(userId)) {
+                        throw new RuntimeException("用户不存在: " + userId);
+                    }
+                    AuthorInfluenceDTO pending = createEmptyDTO(null);
+                    pending.setPending(true);
+                    return pending;
+                });
     }
 
-    private AuthorInfluenceDTO fetchFromEsAndSave(String userId) {
-        // 2. 获取用户信息
+    private AuthorInfluenceDTO refreshFromEs(String userId) {
+        // 获取用户信息
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("用户不存在: " + userId));
-        
+        return refreshFromEs(user);
+    }
+
+    private AuthorInfluenceDTO refreshFromEs(User user) {
+        String userId = user.getId();
         String searchName = user.getUsername(); // 或者用 user.getRealName() 取决于你存的是什么
-        log.info("MySQL缓存未命中，正在ES中搜索作者: {}", searchName);
+        log.info("正在ES中搜索作者: {}", searchName);
 
 
         Sort sort = Sort.by(Sort.Direction.DESC, "cited_by_count");
@@ -65,7 +193,6 @@ public class AnalysisAuthorService {
         // 取第0页，第1条，按引用量降序 -> 这样就能取到引用量最高的那个 "Li Fei-Fei"
         Page<Author> authorPage = authorRepository.findByDisplayNameFuzzy(searchName, PageRequest.of(0, 1, sort));
         
-        //List<Author> authors = authorRepository.findByDisplayName(searchName, PageRequest.of(0, 1)).getContent();
         List<Author> authors = authorPage.getContent();
 
         if (authors.isEmpty()) {
@@ -108,8 +235,13 @@ public class AnalysisAuthorService {
             //influence.setTopics("");
         }
 
-        scholarInfluenceRepository.save(influence);
-        log.info("已将ES数据同步至MySQL缓存, userId: {}", userId);
+        // 只在后台线程中调用（首次计算、定期刷新、预热），直接落库
+        try {
+            scholarInfluenceRepository.save(influence);
+            log.info("已将ES数据同步至MySQL缓存, userId: {}", userId);
+        } catch (Exception e) {
+            log.warn("保存学者影响力失败, userId: {}, 错误: {}", userId, e.getMessage());
+        }
 
         return toDTO(influence);
     }
@@ -139,66 +271,20 @@ public class AnalysisAuthorService {
         return dto;
     }
 
+    /**
+     * 排行榜读取内存快照，排行榜任务完成后由 LeaderboardCache 重载
+     */
     public List<ScholarRankingDTO> getScholarRanking(String domain) {
-        String tableName;
-        
-        if ("all".equalsIgnoreCase(domain)) {
-            tableName = "scholar_ranking_all";
-        } else {
-            tableName = sanitizeTableName(domain);
-        }
-
-        
-        String sql = "SELECT * FROM `" + tableName + "` ORDER BY influence_score DESC LIMIT 100";
-
-        try {
-            // 3. 执行查询并手动映射结果
-            return jdbcTemplate.query(sql, (rs, rowNum) -> {
-                ScholarRankingDTO dto = new ScholarRankingDTO();
-                // 1. 设置外层属性
-                dto.setInfluenceScore(rs.getDouble("influence_score"));
-                dto.setRank(rowNum + 1); // 设置排名
-
-                // 2. 创建并设置内层 ScholarInfo 对象
-                ScholarRankingDTO.ScholarInfo info = new ScholarRankingDTO.ScholarInfo();
-                info.setId(rs.getString("id"));
-                info.setDisplayName(rs.getString("display_name"));
-                info.setHIndex(rs.getInt("h_index"));
-                info.setI10Index(rs.getInt("i10_index"));
-                info.setWorksCount(rs.getInt("works_count"));
-                info.setCitedCount(rs.getInt("cited_count"));
-
-                // 3. 处理 tags: 数据库存的是字符串 "Tag1, Tag2"，转为 List
-                String tagsStr = rs.getString("primary_tags");
-                if (tagsStr != null && !tagsStr.isEmpty()) {
-                    info.setPrimaryTags(Arrays.asList(tagsStr.split(",\\s*")));
-                } else {
-                    info.setPrimaryTags(Collections.emptyList());
-                }
-
-                dto.setScholar(info);
-                return dto;
-            });
-        } catch (Exception e) {
-            // 如果表不存在（比如用户输入了错误的领域），返回空列表而不是报错
-            log.error("查询排行榜失败，表名: {}, 错误: {}", tableName, e.getMessage());
-            return Collections.emptyList();
-        }
-    }
-
-    private String sanitizeTableName(String domain) {
-        if (domain == null) return "scholar_ranking_all";
-        String safeName = domain.toLowerCase().replaceAll("[^a-z0-9]", "_");
-        safeName = safeName.replaceAll("_+", "_");
-        if (safeName.startsWith("_")) safeName = safeName.substring(1);
-        if (safeName.endsWith("_")) safeName = safeName.substring(0, safeName.length() - 1);
-        return "scholar_ranking_" + safeName;
+        return leaderboardCache.get(domain);
     }
 
     /**
-     * 根据作者名模糊查询作者关系（author1_name 或 author2_name 匹配）
+     * 根据作者名查询作者关系，优先读内存合作者图；图尚未加载完成时回退到数据库查询
      */
     public List<AuthorRelationDTO> getAuthorRelation(String authorName) {
+        if (coauthorGraphService.isLoaded()) {
+            return coauthorGraphService.relationsByName(authorName);
+        }
         List<AuthorRelation> list1 = authorRelationRepository.findByAuthor1Name(authorName);
         List<AuthorRelation> list2 = authorRelationRepository.findByAuthor2Name(authorName);
         List<AuthorRelation> merged = new ArrayList<>(list1);
@@ -218,5 +304,37 @@ public class AnalysisAuthorService {
             return dto;
         }).collect(Collectors.toList());
     }
+
+    /**
+     * 合作次数最多的合作者
+     */
+    public List<CoauthorDTO> getTopCoauthors(String authorId, int limit) {
+        return coauthorGraphService.topCollaborators(authorId, limit);
+    }
+
+    /**
+     * 二度合作者（合作者的合作者）
+     */
+    public List<CoauthorDTO> getSecondDegreeCoauthors(String authorId, int limit) {
+        return coauthorGraphService.secondDegree(authorId, limit);
+    }
+
+    /**
+     * 两位作者之间的最短合作路径
+     */
+    public CollaborationNetworkDTO getCollaborationPath(String fromId, String toId) {
+        return coauthorGraphService.shortestPath(fromId, toId);
+    }
+
+    /**
+     * 以指定作者为中心的 k 跳合作网络，第一跳展开 fanOut 位合作者，之后每跳减半
+     */
+    public CollaborationNetworkDTO getEgoNetwork(String authorId, int hops, int fanOut) {
+        int[] perHop = new int[hops];
+        for (int i = 0; i < hops; i++) {
+            perHop[i] = Math.max(1, fanOut >> i);
+        }
+        return coauthorGraphService.egoNetwork(authorId, perHop);
+    }
 }
 
@@ -0,0 +1,448 @@
+package com.scholar.platform.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scholar.platform.dto.HotTopicsResponse;
+import com.scholar.platform.entity.PaperKeyword;
+import com.scholar.platform.repository.PaperKeywordRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热门话题快照
+ * 内存中为每个关键词维护累计总数、最近 366 天的按天计数和各滚动窗口的当前合计；按天计数是稀疏的，
+ * 只保存有浏览的日期（大多数关键词一年里只有少数几天被浏览），内存与活跃天数成正比而不是每个关键词固定 366 个槽位。
+ * 每个时间范围维护一份有序的前 N 名，接口直接返回现成数组。all 取 paper_keywords 的累计总数，
+ * 其余范围为截至今天的滚动窗口之和。
+ * 关键词计数写回后只更新涉及的关键词：窗口合计加上增量，再在对应范围的前 N 名中调整位置（同一天内计数只增不减，
+ * 未入榜的关键词只有超过榜尾才会进入）；跨天、重载或出现负增量时才全量重算。
+ * 有变化的范围由定时任务写入 Redis 供重启后立即使用；其他节点写入的计数通过定时全量重载对齐
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class HotTopicsService {
+
+    /** 滚动窗口天数，all 不在其中 */
+    private static final Map<String, Integer> WINDOW_DAYS = windowDays();
+
+    public static final List<String> RANGES = List.of("all", "1y", "3m", "30d", "7d");
+
+    private static final int RETAINED_DAYS = 366;
+    private static final String REDIS_KEY_PREFIX = "hot-topics:";
+    private static final Duration REDIS_TTL = Duration.ofDays(1);
+
+    private final PaperKeywordRepository paperKeywordRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${hot-topics.snapshot-size:500}")
+    private int snapshotSize;
+
+    @Value("${hot-topics.daily-retention-days:400}")
+    private int dailyRetentionDays;
+
+    private final Map<String, KeywordSeries> series = new ConcurrentHashMap<>();
+
+    /** 各时间范围的前 N 名，与 RANGES 顺序一致，只在持有本对象锁时读写 */
+    private final RangeTop[] tops = new RangeTop[RANGES.size()];
+
+    /** 按天计数中“今天”对应的 epochDay，日期前进时丢弃超出保留天数的计数 */
+    private long currentEpochDay = LocalDate.now().toEpochDay();
+
+    private volatile Map<String, List<HotTopicsResponse.TopicWeight>> snapshots = Map.of();
+
+    private static final class KeywordSeries {
+        private static final int[] EMPTY = new int[0];
+
+        private long total;
+        /** 有计数的日期（epochDay 升序）和当日计数，前 size 个有效 */
+        private int[] days = EMPTY;
+        private int[] counts = EMPTY;
+        private int size;
+        /** 各滚动窗口的当前合计，与 WINDOW_DAYS 顺序一致 */
+        private final long[] windowSums = new long[WINDOW_DAYS.size()];
+
+        /** 按 RANGES 下标取权重：0 为累计总数，其余为对应窗口合计 */
+        private long weight(int range) {
+            return range == 0 ? total : windowSums[range - 1];
+        }
+
+        /**
+         * 累加某天的计数；新日期几乎总是今天，追加在末尾
+         */
+        private void addDaily(long epochDay, int delta) {
+            int day = (int) epochDay;
+            int index = size > 0 && days[size - 1] == day ? size - 1 : Arrays.binarySearch(days, 0, size, day);
+            if (index >= 0) {
+                counts[index] += delta;
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == days.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                days = Arrays.copyOf(days, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+            System.arraycopy(days, insertAt, days, insertAt + 1, size - insertAt);
+            System.arraycopy(counts, insertAt, counts, insertAt + 1, size - insertAt);
+            days[insertAt] = day;
+            counts[insertAt] = delta;
+            size++;
+        }
+
+        /** fromEpochDay（含）之后的计数合计 */
+        private long sumSince(long fromEpochDay) {
+            long sum = 0;
+            for (int i = size - 1; i >= 0 && days[i] >= fromEpochDay; i--) {
+                sum += counts[i];
+            }
+            return sum;
+        }
+
+        /** 丢弃 epochDay 之前的计数，数组明显空闲时收缩 */
+        private void dropBefore(long epochDay) {
+            int keepFrom = 0;
+            while (keepFrom < size && days[keepFrom] < epochDay) {
+                keepFrom++;
+            }
+            if (keepFrom == 0) {
+                return;
+            }
+            size -= keepFrom;
+            if (size == 0) {
+                days = EMPTY;
+                counts = EMPTY;
+            } else if (size < days.length / 4) {
+                days = Arrays.copyOfRange(days, keepFrom, keepFrom + size);
+                counts = Arrays.copyOfRange(counts, keepFrom, keepFrom + size);
+            } else {
+                System.arraycopy(days, keepFrom, days, 0, size);
+                System.arraycopy(counts, keepFrom, counts, 0, size);
+            }
+        }
+    }
+
+    private record Ranked(String keyword, long weight) {
+    }
+
+    /**
+     * 单个时间范围的前 N 名：按权重升序的有序集合（首元素即榜尾）加成员当前权重
+     */
+    private static final class RangeTop {
+        private static final Comparator<Ranked> ORDER = Comparator.comparingLong(Ranked::weight)
+                .thenComparing(Ranked::keyword, Comparator.reverseOrder());
+
+        private final TreeSet<Ranked> ranked = new TreeSet<>(ORDER);
+        private final Map<String, Long> members = new HashMap<>();
+        /** 自上次写入 Redis 后是否有变化 */
+        private boolean dirty;
+
+        /**
+         * 关键词权重增加后调整榜单，返回榜单是否变化；调用方保证权重只增不减
+         */
+        private boolean offer(String keyword, long weight, int limit) {
+            Long old = members.get(keyword);
+            if (old != null) {
+                if (old == weight) {
+                    return false;
+                }
+                ranked.remove(new Ranked(keyword, old));
+            } else if (weight <= 0 || (members.size() >= limit && weight <= ranked.first().weight())) {
+                return false;
+            }
+            ranked.add(new Ranked(keyword, weight));
+            members.put(keyword, weight);
+            if (members.size() > limit) {
+                members.remove(ranked.pollFirst().keyword());
+            }
+            return true;
+        }
+
+        private List<HotTopicsResponse.TopicWeight> toList() {
+            List<HotTopicsResponse.TopicWeight> result = new ArrayList<>(ranked.size());
+            for (Ranked r : ranked.descendingSet()) {
+                result.add(new HotTopicsResponse.TopicWeight(r.keyword(), (int) Math.min(Integer.MAX_VALUE, r.weight())));
+            }
+            return List.copyOf(result);
+        }
+    }
+
+    private static Map<String, Integer> windowDays() {
+        Map<String, Integer> days = new LinkedHashMap<>();
+        days.put("1y", 365);
+        days.put("3m", 90);
+        days.put("30d", 30);
+        days.put("7d", 7);
+        return days;
+    }
+
+    @PostConstruct
+    public void init() {
+        loadFromRedis();
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("加载热门话题失败，使用 Redis 中的快照: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 指定时间范围的前 limit 个话题
+     */
+    public List<HotTopicsResponse.TopicWeight> getTopTopics(String range, Integer limit) {
+        if (!RANGES.contains(range)) {
+            throw new IllegalArgumentException("range参数错误");
+        }
+        List<HotTopicsResponse.TopicWeight> snapshot = snapshots.getOrDefault(range, List.of());
+        if (limit == null || limit >= snapshot.size()) {
+            return snapshot;
+        }
+        return snapshot.subList(0, Math.max(0, limit));
+    }
+
+    /**
+     * 应用一批已写入数据库的计数增量，只调整涉及的关键词；跨天或出现负增量时全量重算
+     */
+    public synchronized void applyDeltas(LocalDate day, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        boolean rolledOver = advanceTo(LocalDate.now().toEpochDay());
+        long epochDay = day.toEpochDay();
+        long age = currentEpochDay - epochDay;
+        boolean retained = age >= 0 && age < RETAINED_DAYS;
+        boolean decreased = false;
+        for (Map.Entry<String, Long> entry : deltas.entrySet()) {
+            long delta = entry.getValue();
+            decreased |= delta < 0;
+            KeywordSeries s = series.computeIfAbsent(entry.getKey(), k -> new KeywordSeries());
+            s.total += delta;
+            if (retained) {
+                s.addDaily(epochDay, (int) delta);
+                int w = 0;
+                for (int days : WINDOW_DAYS.values()) {
+                    if (age < days) {
+                        s.windowSums[w] += delta;
+                    }
+                    w++;
+                }
+            }
+        }
+        // tops 为空说明启动时重载失败，还没有可增量调整的榜单
+        if (rolledOver || decreased || tops[0] == null) {
+            rebuild();
+            return;
+        }
+
+        boolean[] changed = new boolean[RANGES.size()];
+        for (String keyword : deltas.keySet()) {
+            KeywordSeries s = series.get(keyword);
+            for (int r = 0; r < RANGES.size(); r++) {
+                changed[r] |= tops[r].offer(keyword, s.weight(r), snapshotSize);
+            }
+        }
+        publish(changed);
+    }
+
+    /**
+     * 从数据库全量重载：累计总数来自 paper_keywords，按天计数来自 paper_keyword_daily 最近 366 天；
+     * 用于对齐其他节点写入的增量
+     */
+    @Scheduled(initialDelayString = "${hot-topics.reload-interval-ms:1800000}",
+            fixedDelayString = "${hot-topics.reload-interval-ms:1800000}")
+    public synchronized void reload() {
+        long today = LocalDate.now().toEpochDay();
+        Map<String, KeywordSeries> loaded = new ConcurrentHashMap<>();
+        for (PaperKeyword pk : paperKeywordRepository.findAllKeywords()) {
+            loaded.computeIfAbsent(pk.getKeyword(), k -> new KeywordSeries()).total =
+                    pk.getCnt() == null ? 0 : pk.getCnt();
+        }
+        LocalDate from = LocalDate.ofEpochDay(today - RETAINED_DAYS + 1);
+        // 按日期顺序读取，每个关键词的计数都追加在末尾
+        jdbcTemplate.query("SELECT keyword, day, cnt FROM paper_keyword_daily WHERE day >= ? AND day <= ? ORDER BY day",
+                rs -> {
+                    long epochDay = rs.getDate("day").toLocalDate().toEpochDay();
+                    loaded.computeIfAbsent(rs.getString("keyword"), k -> new KeywordSeries())
+                            .addDaily(epochDay, rs.getInt("cnt"));
+                },
+                Date.valueOf(from), Date.valueOf(LocalDate.ofEpochDay(today)));
+        series.clear();
+        series.putAll(loaded);
+        currentEpochDay = today;
+        rebuild();
+        log.info("热门话题重载完成: {} 个关键词", loaded.size());
+    }
+
+    /**
+     * 跨天后窗口随之滑动，即使没有新的浏览也需要重建快照
+     */
+    @Scheduled(cron = "${hot-topics.rollover-cron:0 1 0 * * *}")
+    public synchronized void rollover() {
+        advanceTo(LocalDate.now().toEpochDay());
+        rebuild();
+    }
+
+    /**
+     * 把有变化的范围快照写入 Redis；快照只用于重启后的首次展示，不需要随每次写回同步
+     */
+    @Scheduled(initialDelayString = "${hot-topics.persist-interval-ms:60000}",
+            fixedDelayString = "${hot-topics.persist-interval-ms:60000}")
+    public void persistSnapshots() {
+        Map<String, List<HotTopicsResponse.TopicWeight>> changed = new LinkedHashMap<>();
+        synchronized (this) {
+            for (int r = 0; r < RANGES.size(); r++) {
+                if (tops[r] != null && tops[r].dirty) {
+                    tops[r].dirty = false;
+                    changed.put(RANGES.get(r), snapshots.getOrDefault(RANGES.get(r), List.of()));
+                }
+            }
+        }
+        changed.forEach(this::saveToRedis);
+    }
+
+    /**
+     * 清理超出保留期的按天计数；累计总数保存在 paper_keywords 中，不受影响
+     */
+    @Scheduled(cron = "${hot-topics.compaction-cron:0 30 3 * * *}")
+    public void pruneDailyBuckets() {
+        LocalDate cutoff = LocalDate.now().minusDays(dailyRetentionDays);
+        int deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update("DELETE FROM paper_keyword_daily WHERE day < ? LIMIT 5000",
+                    Date.valueOf(cutoff));
+            deleted += batch;
+        } while (batch > 0);
+        if (deleted > 0) {
+            log.info("清理 {} 之前的关键词按天计数: {} 行", cutoff, deleted);
+        }
+    }
+
+    /**
+     * 日期前进时丢弃超出保留天数的计数，返回日期是否变化
+     */
+    private boolean advanceTo(long today) {
+        if (today <= currentEpochDay) {
+            return false;
+        }
+        long keepFrom = today - RETAINED_DAYS + 1;
+        for (KeywordSeries s : series.values()) {
+            s.dropBefore(keepFrom);
+        }
+        currentEpochDay = today;
+        return true;
+    }
+
+    /**
+     * 全量重算：先按当前日期重算每个关键词的窗口合计，再用大小为 N 的小顶堆为每个范围选出前 N 名
+     */
+    private void rebuild() {
+        for (KeywordSeries s : series.values()) {
+            int w = 0;
+            for (int days : WINDOW_DAYS.values()) {
+                s.windowSums[w++] = windowSum(s, days);
+            }
+        }
+        boolean[] changed = new boolean[RANGES.size()];
+        for (int r = 0; r < RANGES.size(); r++) {
+            tops[r] = topN(r);
+            changed[r] = true;
+        }
+        publish(changed);
+    }
+
+    private RangeTop topN(int range) {
+        Comparator<Ranked> byWeight = Comparator.comparingLong(Ranked::weight);
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(snapshotSize + 1, byWeight);
+        series.forEach((keyword, s) -> {
+            long weight = s.weight(range);
+            if (weight <= 0) {
+                return;
+            }
+            if (heap.size() < snapshotSize) {
+                heap.offer(new Ranked(keyword, weight));
+            } else if (weight > heap.peek().weight()) {
+                heap.poll();
+                heap.offer(new Ranked(keyword, weight));
+            }
+        });
+        RangeTop top = new RangeTop();
+        for (Ranked r : heap) {
+            top.ranked.add(r);
+            top.members.put(r.keyword(), r.weight());
+        }
+        return top;
+    }
+
+    /**
+     * 用有变化的范围替换接口读取的快照，并标记为待写入 Redis
+     */
+    private void publish(boolean[] changed) {
+        Map<String, List<HotTopicsResponse.TopicWeight>> next = null;
+        for (int r = 0; r < RANGES.size(); r++) {
+            if (!changed[r]) {
+                continue;
+            }
+            if (next == null) {
+                next = new HashMap<>(snapshots);
+            }
+            next.put(RANGES.get(r), tops[r].toList());
+            tops[r].dirty = true;
+        }
+        if (next != null) {
+            snapshots = next;
+        }
+    }
+
+    private long windowSum(KeywordSeries s, int days) {
+        return s.sumSince(currentEpochDay - days + 1);
+    }
+
+    private void saveToRedis(String range, List<HotTopicsResponse.TopicWeight> topics) {
+        try {
+            stringRedisTemplate.opsForValue().set(REDIS_KEY_PREFIX + range,
+                    objectMapper.writeValueAsString(topics), REDIS_TTL);
+        } catch (Exception e) {
+            log.warn("写入热门话题快照失败: {}", e.getMessage());
+        }
+    }
+
+    private void loadFromRedis() {
+        Map<String, List<HotTopicsResponse.TopicWeight>> loaded = new ConcurrentHashMap<>();
+        for (String range : RANGES) {
+            try {
+                String json = stringRedisTemplate.opsForValue().get(REDIS_KEY_PREFIX + range);
+                if (json != null) {
+                    loaded.put(range, List.copyOf(objectMapper.readValue(json,
+                            new TypeReference<List<HotTopicsResponse.TopicWeight>>() {
+                            })));
+                }
+            } catch (Exception e) {
+                log.warn("读取热门话题快照失败: {}", e.getMessage());
+            }
+        }
+        snapshots = loaded;
+    }
+}
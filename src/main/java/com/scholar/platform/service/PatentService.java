@@ -29,15 +29,16 @@ public class PatentService {
 
     public Page<PatentDTO> searchPatents(String keyword, Integer applicationYear, Integer grantYear, Pageable pageable) {
         String cacheKey = CacheKeyUtil.patentSearchKey(keyword, applicationYear, grantYear, pageable);
-        CachedPage<PatentDTO> cachedPage = searchCacheService.get(cacheKey);
-        if (cachedPage != null) {
-            List<PatentDTO> cachedRecords = cachedPage.getRecords();
-            if (cachedRecords == null) {
-                cachedRecords = List.of();
-            }
-            return new PageImpl<>(cachedRecords, pageable, cachedPage.getTotal());
+        CachedPage<PatentDTO> cachedPage = searchCacheService.getOrLoad(cacheKey,
+                () -> queryPatents(keyword, applicationYear, grantYear, pageable));
+        List<PatentDTO> cachedRecords = cachedPage.getRecords();
+        if (cachedRecords == null) {
+            cachedRecords = List.of();
         }
+        return new PageImpl<>(cachedRecords, pageable, cachedPage.getTotal());
+    }
 
+    private CachedPage<PatentDTO> queryPatents(String keyword, Integer applicationYear, Integer grantYear, Pageable pageable) {
         BoolQuery.Builder boolBuilder = new BoolQuery.Builder();
 
         if (keyword != null && !keyword.trim().isEmpty()) {
@@ -73,8 +74,6 @@ public class PatentService {
             .map(hit -> PatentDTO.fromEntity(hit.getContent()))
             .collect(Collectors.toList());
 
-        searchCacheService.put(cacheKey, CachedPage.of(list, hits.getTotalHits()));
-
-        return new PageImpl<>(list, pageable, hits.getTotalHits());
+        return CachedPage.of(list, hits.getTotalHits());
     }
 }
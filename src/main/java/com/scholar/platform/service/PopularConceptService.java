@@ -0,0 +1,50 @@
+package com.scholar.platform.service;
+
+import com.scholar.platform.entity.PaperKeyword;
+import com.scholar.platform.repository.PaperKeywordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 无检索条件时兜底使用的热门概念
+ * 结果保存在内存中并定时刷新，首页检索不再每次查询 MySQL
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PopularConceptService {
+
+    private final PaperKeywordRepository paperKeywordRepository;
+
+    private volatile String topConcept;
+
+    /**
+     * 当前最热门的概念，尚未加载时同步加载一次
+     */
+    public String getTopConcept() {
+        String concept = topConcept;
+        if (concept == null) {
+            refresh();
+            concept = topConcept;
+        }
+        return concept;
+    }
+
+    @Scheduled(fixedDelayString = "${search.popular-concept.refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            PaperKeyword pk = paperKeywordRepository.findFirstByOrderByCntDesc();
+            String concept = pk == null ? null : pk.getKeyword();
+            if (concept != null && !concept.equals(topConcept)) {
+                log.info("热门概念更新: {} -> {}", topConcept, concept);
+            }
+            if (concept != null) {
+                topConcept = concept;
+            }
+        } catch (Exception e) {
+            log.warn("刷新热门概念失败: {}", e.getMessage());
+        }
+    }
+}
@@ -1,46 +1,45 @@
 package com.scholar.platform.service;
 
-import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.scholar.platform.dto.RankingJobStatus;
 import com.scholar.platform.entity.Author;
+import com.scholar.platform.service.cache.LeaderboardCache;
+import com.scholar.platform.service.export.IndexExporter;
+import com.scholar.platform.util.RankingTableUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.elasticsearch.client.elc.NativeQuery;
-import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.elasticsearch.core.SearchHits;
-import org.springframework.data.elasticsearch.core.SearchHitsIterator;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ScholarRankingBatchService {
 
-    private final ElasticsearchOperations elasticsearchOperations;
+    private final IndexExporter indexExporter;
     private final JdbcTemplate jdbcTemplate; // 用于执行动态 SQL
+    private final ThreadPoolTaskExecutor rankingExecutor;
+    private final LeaderboardCache leaderboardCache;
 
-    /**
-     * 核心任务：按领域生成排行榜表
-     */
-    @Transactional
-    public String generateDomainRankings() {
-        log.info("开始生成分领域学者排行榜...");
-        long startTime = System.currentTimeMillis();
+    public static final String GLOBAL_DOMAIN = "All Domains";
 
-        log.info("正在处理总榜 (All Domains)...");
-        processGlobalRanking();
-
-        // 直接使用 fields.md 中的领域列表
-        String[] domains = {
+    // 直接使用 fields.md 中的领域列表
+    public static final List<String> DOMAINS = List.of(
             "Medicine",
             "Social Sciences",
             "Engineering",
@@ -67,102 +66,215 @@ public class ScholarRankingBatchService {
             "Dentistry",
             "Chemical Engineering",
             "Veterinary"
-        };
+    );
+
+    private static final int MAX_RETAINED_JOBS = 20;
+    private static final int BOARD_SIZE = 100;
 
-        int processedDomains = 0;
+    private static final String AUTHORS_INDEX = "openalex_authors";
 
-        // 2. 遍历每个领域，处理 Top 100
-        for (String domainName : domains) {
-            log.info("正在处理领域: {}", domainName);
-            processSingleDomain(domainName);
-            processedDomains++;
+    /**
+     * 计算排行榜需要的 _source 字段
+     */
+    private static final List<String> SOURCE_FIELDS = List.of("display_name", "field", "works_count",
+            "cited_by_count", "summary_stats.h_index", "summary_stats.i10_index");
+
+    /**
+     * 影响力分数相同时引用量高者在前
+     */
+    private static final Comparator<RankedAuthor> RANK_ORDER = Comparator.comparingDouble(RankedAuthor::score)
+            .thenComparingInt(RankedAuthor::cited);
+
+    private record RankedAuthor(Author author, double score, int cited) {
+    }
+
+    private final Map<String, RankingJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicReference<RankingJob> runningJob = new AtomicReference<>();
+
+    /**
+     * 提交分领域排行榜生成任务，立即返回任务状态
+     * 总榜与各领域并行处理（并发度由 rankingExecutor 限定），每个领域独立写表，不包在一个长事务里；
+     * 已有任务在运行时直接返回该任务
+     */
+    public RankingJobStatus submitDomainRankings() {
+        RankingJob job = new RankingJob(UUID.randomUUID().toString(), DOMAINS.size() + 1);
+        if (!runningJob.compareAndSet(null, job)) {
+            RankingJob running = runningJob.get();
+            if (running != null) {
+                return running.toStatus();
+            }
+            return submitDomainRankings();
         }
+        jobs.put(job.jobId, job);
+        evictOldJobs();
+        log.info("开始生成分领域学者排行榜, jobId: {}", job.jobId);
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        tasks.add(runDomain(job, GLOBAL_DOMAIN, this::processGlobalRanking));
+        for (String domainName : DOMAINS) {
+            tasks.add(runDomain(job, domainName, () -> processSingleDomain(domainName)));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            job.finish();
+            runningJob.compareAndSet(job, null);
+            log.info("排行榜任务 {} 结束: 成功 {} 个, 失败 {} 个, 耗时 {} ms", job.jobId,
+                    job.completed.get(), job.failed.get(), job.elapsedMillis());
+        });
+        return job.toStatus();
+    }
 
-        long endTime = System.currentTimeMillis();
-        return String.format("处理完成。共处理 %d 个领域，耗时 %d ms", processedDomains, (endTime - startTime));
+    public Optional<RankingJobStatus> getJobStatus(String jobId) {
+        RankingJob job = jobs.get(jobId);
+        return job == null ? Optional.empty() : Optional.of(job.toStatus());
     }
 
-    private void processGlobalRanking() {
-        // 1. 全局查询，不限领域，按引用量降序
-        NativeQuery query = NativeQuery.builder()
-                .withQuery(q -> q.matchAll(m -> m)) 
-                .withSort(Sort.by(Sort.Direction.DESC, "cited_by_count"))
-                .withPageable(PageRequest.of(0, 200)) // 取前200作为候选池 
-                .build();
-
-        SearchHits<Author> hits = elasticsearchOperations.search(query, Author.class);
-        
-        if (hits.getTotalHits() == 0) return;
+    private CompletableFuture<Void> runDomain(RankingJob job, String domainName, Runnable task) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                task.run();
+                job.completed.incrementAndGet();
+            } catch (Exception e) {
+                job.failed.incrementAndGet();
+                job.errors.put(domainName, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+                log.error("领域 {} 排行榜生成失败: {}", domainName, e.getMessage());
+            } finally {
+                job.domainMillis.put(domainName, System.currentTimeMillis() - start);
+            }
+        }, rankingExecutor);
+    }
 
-        // 2. 转换为待插入数据
-        List<Object[]> batchArgs = new ArrayList<>();
-        for (SearchHit<Author> hit : hits) {
-            Author author = hit.getContent();
-            double score = calculateInfluenceScore(author);
-            int cited = author.getCitedByCount() != null ? author.getCitedByCount() : 0;
-            String tags = author.getField() != null ? String.join(", ", author.getField()) : "";
-            if (tags.length() > 255) tags = tags.substring(0, 255);
+    private void evictOldJobs() {
+        if (jobs.size() <= MAX_RETAINED_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(j -> j.finishedAt != null)
+                .sorted(Comparator.comparing(j -> j.startedAt))
+                .limit(jobs.size() - MAX_RETAINED_JOBS)
+                .forEach(j -> jobs.remove(j.jobId));
+    }
 
-            int hIndex = (author.getSummaryStats() != null && author.getSummaryStats().getHIndex() != null) ? author.getSummaryStats().getHIndex() : 0;
-            int i10Index = (author.getSummaryStats() != null && author.getSummaryStats().getI10Index() != null) ? author.getSummaryStats().getI10Index() : 0;
+    private static final class RankingJob {
+        private final String jobId;
+        private final int totalDomains;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startMillis = System.currentTimeMillis();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Map<String, Long> domainMillis = new ConcurrentHashMap<>();
+        private final Map<String, String> errors = new ConcurrentHashMap<>();
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedMillis;
+
+        private RankingJob(String jobId, int totalDomains) {
+            this.jobId = jobId;
+            this.totalDomains = totalDomains;
+        }
 
-            batchArgs.add(new Object[]{
-                    author.getId(),
-                    author.getDisplayName(),
-                    tags,
-                    hIndex,
-                    i10Index,
-                    author.getWorksCount(),
-                    score,
-                    cited
-            });
+        private void finish() {
+            finishedMillis = System.currentTimeMillis();
+            finishedAt = LocalDateTime.now();
         }
 
-        // 3. 在内存中按 score 再次排序（因为 ES 是按引用量排的，score 包含其他因子）
-        batchArgs.sort((o1, o2) -> Double.compare((Double) o2[6], (Double) o1[6])); // index 6 is score
+        private long elapsedMillis() {
+            return (finishedAt != null ? finishedMillis : System.currentTimeMillis()) - startMillis;
+        }
 
-        // 4. 截取前 100
-        if (batchArgs.size() > 100) {
-            batchArgs = batchArgs.subList(0, 100);
+        private RankingJobStatus toStatus() {
+            RankingJobStatus status = new RankingJobStatus();
+            status.setJobId(jobId);
+            if (finishedAt == null) {
+                status.setStatus("RUNNING");
+            } else {
+                status.setStatus(failed.get() == 0 ? "COMPLETED" : "FAILED");
+            }
+            status.setTotalDomains(totalDomains);
+            status.setCompletedDomains(completed.get());
+            status.setFailedDomains(failed.get());
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setElapsedMillis(elapsedMillis());
+            status.setDomainMillis(new TreeMap<>(domainMillis));
+            status.setErrors(new TreeMap<>(errors));
+            return status;
         }
+    }
 
-        // 5. 存入 scholar_ranking_all 表
-        String tableName = "scholar_ranking_all";
+    private void processGlobalRanking() {
+        // 1. 全局范围，不限领域，按影响力分数取前 100
+        List<Author> top = searchTopByInfluence(null);
+
+        if (top.isEmpty()) return;
+
+        // 2. 存入 scholar_ranking_all 表
+        String tableName = RankingTableUtil.GLOBAL_TABLE;
         createTableIfNotExists(tableName);
-        saveToDatabase(tableName, batchArgs);
+        saveToDatabase(tableName, toBatchArgs(top));
     }
 
     private void processSingleDomain(String domainName) {
-        // 2.1 查询该领域引用量最高的 Top 100
-        NativeQuery query = NativeQuery.builder()
-                //.withQuery(q -> q.match(m -> m.field("field").query(domainName))) // 筛选 fields
-                .withQuery(q -> q.term(t -> t.field("field.keyword").value(domainName))) 
-                .withSort(Sort.by(Sort.Direction.DESC, "cited_by_count"))          // 按引用量降序
-                .withPageable(PageRequest.of(0, 100))                              // 取前100
-                .build();
+        // 2.1 查询该领域影响力分数最高的 Top 100
+        List<Author> top = searchTopByInfluence(
+                Query.of(q -> q.term(t -> t.field("field.keyword").value(domainName))));
 
-        SearchHits<Author> hits = elasticsearchOperations.search(query, Author.class);
+        log.info("领域 {} 入榜学者数: {}", domainName, top.size());
+        if (top.isEmpty()) return;
 
-        log.info("domainName, hits: ", domainName, hits.getTotalHits());
-        if (hits.getTotalHits() == 0) return;
+        // 2.2 动态建表并入库
+        String tableName = RankingTableUtil.tableName(domainName);
+        createTableIfNotExists(tableName);
+        saveToDatabase(tableName, toBatchArgs(top));
+    }
+
+    /**
+     * 按影响力分数（calculateInfluenceScore）取前 BOARD_SIZE 名
+     * 通过 IndexExporter 流式读取过滤条件命中的全部学者，在 Java 中计算分数并用大小为 BOARD_SIZE 的小顶堆保留前几名，
+     * 不依赖 ES 脚本排序；导出遇到分片失败或超时会抛出异常，本领域不替换线上榜单
+     *
+     * @param filter 过滤条件，为 null 时是全部学者
+     * @return 按分数降序排列的学者
+     */
+    private List<Author> searchTopByInfluence(Query filter) {
+        PriorityQueue<RankedAuthor> heap = new PriorityQueue<>(BOARD_SIZE + 1, RANK_ORDER);
+        indexExporter.export(AUTHORS_INDEX, Author.class, filter, SOURCE_FIELDS, batch -> {
+            synchronized (heap) {
+                for (Author author : batch) {
+                    RankedAuthor ranked = new RankedAuthor(author, calculateInfluenceScore(author),
+                            author.getCitedByCount() != null ? author.getCitedByCount() : 0);
+                    if (heap.size() < BOARD_SIZE) {
+                        heap.offer(ranked);
+                    } else if (RANK_ORDER.compare(ranked, heap.peek()) > 0) {
+                        heap.poll();
+                        heap.offer(ranked);
+                    }
+                }
+            }
+        });
+
+        List<RankedAuthor> ranked = new ArrayList<>(heap);
+        ranked.sort(RANK_ORDER.reversed());
+        List<Author> top = new ArrayList<>(ranked.size());
+        for (RankedAuthor r : ranked) {
+            top.add(r.author());
+        }
+        return top;
+    }
 
-        // 2.2 准备数据
+    private List<Object[]> toBatchArgs(List<Author> authors) {
         List<Object[]> batchArgs = new ArrayList<>();
-        for (SearchHit<Author> hit : hits) {
-            Author author = hit.getContent();
-            
+        for (Author author : authors) {
             // 计算影响力分数
             double score = calculateInfluenceScore(author);
             int cited = author.getCitedByCount() != null ? author.getCitedByCount() : 0;
             // 拼接 primary_tags (将 List<String> 转为逗号分隔字符串)
-            String tags = author.getField() != null ? 
+            String tags = author.getField() != null ?
                           String.join(", ", author.getField()) : "";
             if (tags.length() > 255) tags = tags.substring(0, 255); // 防止超长
-            //System.out.println(tags);
             // 获取统计数据 (防止空指针)
-            int hIndex = (author.getSummaryStats() != null && author.getSummaryStats().getHIndex() != null) 
+            int hIndex = (author.getSummaryStats() != null && author.getSummaryStats().getHIndex() != null)
                          ? author.getSummaryStats().getHIndex() : 0;
-            int i10Index = (author.getSummaryStats() != null && author.getSummaryStats().getI10Index() != null) 
+            int i10Index = (author.getSummaryStats() != null && author.getSummaryStats().getI10Index() != null)
                            ? author.getSummaryStats().getI10Index() : 0;
 
             batchArgs.add(new Object[]{
@@ -176,11 +288,7 @@ public class ScholarRankingBatchService {
                     cited
             });
         }
-
-        // 2.3 动态建表并入库
-        String tableName = sanitizeTableName(domainName);
-        createTableIfNotExists(tableName);
-        saveToDatabase(tableName, batchArgs);
+        return batchArgs;
     }
 
     /**
@@ -202,22 +310,6 @@ public class ScholarRankingBatchService {
         return (cited * 0.5) + (hIndex * 10.0) + (i10Index * 5.0) + (works * 1.0);
     }
 
-    /**
-     * 将领域名称转换为合法的 MySQL 表名
-     * 例如: "Computer Science" -> "scholar_ranking_computer_science"
-     */
-    private String sanitizeTableName(String domain) {
-        // 转小写，替换非字母数字字符为下划线
-        String safeName = domain.toLowerCase().replaceAll("[^a-z0-9]", "_");
-        // 去除重复下划线
-        safeName = safeName.replaceAll("_+", "_");
-        // 去除首尾下划线
-        if (safeName.startsWith("_")) safeName = safeName.substring(1);
-        if (safeName.endsWith("_")) safeName = safeName.substring(0, safeName.length() - 1);
-        
-        return "scholar_ranking_" + safeName;
-    }
-
     private void createTableIfNotExists(String tableName) {
         String sql = String.format("""
             CREATE TABLE IF NOT EXISTS `%s` (
@@ -236,17 +328,33 @@ public class ScholarRankingBatchService {
         jdbcTemplate.execute(sql);
     }
 
+    /**
+     * 先写入影子表，再用一条 RENAME TABLE 原子替换线上表
+     * 读者在任何时刻看到的都是完整的旧榜或新榜，不会读到清空后或写了一半的表
+     * （表名最长 59 字符，加 4 字符后缀仍在 MySQL 64 字符限制内）
+     */
     private void saveToDatabase(String tableName, List<Object[]> batchArgs) {
-        // 1. 清空旧数据 (因为是排行榜，通常是全量刷新)
-        jdbcTemplate.execute("TRUNCATE TABLE `" + tableName + "`");
+        String shadowTable = tableName + "_new";
+        String retiredTable = tableName + "_old";
 
-        // 2. 批量插入
+        // 1. 重建影子表（结构与线上表一致）
+        jdbcTemplate.execute("DROP TABLE IF EXISTS `" + shadowTable + "`");
+        jdbcTemplate.execute("CREATE TABLE `" + shadowTable + "` LIKE `" + tableName + "`");
+
+        // 2. 批量插入影子表
         String sql = String.format("""
             INSERT INTO `%s` (id, display_name, primary_tags, h_index, i10_index, works_count, influence_score, cited_count)
             VALUES (?, ?, ?, ?, ?, ?, ?, ?)
-        """, tableName);
+        """, shadowTable);
 
         jdbcTemplate.batchUpdate(sql, batchArgs);
+
+        // 3. 原子切换，并删除换下来的旧表
+        jdbcTemplate.execute("DROP TABLE IF EXISTS `" + retiredTable + "`");
+        jdbcTemplate.execute(String.format("RENAME TABLE `%s` TO `%s`, `%s` TO `%s`",
+                tableName, retiredTable, shadowTable, tableName));
+        jdbcTemplate.execute("DROP TABLE `" + retiredTable + "`");
+        leaderboardCache.reload(tableName);
         //log.info("表 {} 数据更新完成，插入 {} 条记录", tableName, batchArgs.size());
     }
 }
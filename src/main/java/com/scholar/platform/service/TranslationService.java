@@ -1,25 +1,82 @@
 package com.scholar.platform.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scholar.platform.service.translation.CircuitBreaker;
+import com.scholar.platform.service.translation.TranslationProvider;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 
+/**
+ * 中译英服务，翻译结果按规范化后的原文缓存
+ * L1：进程内 Caffeine LRU；L2：Redis，多节点共享且重启后仍有效；翻译失败不缓存
+ * 未命中时依次尝试各 TranslationProvider（本地词典优先），整体受延迟预算约束，超时或熔断时检索退化为不翻译
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TranslationService {
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final List<TranslationProvider> translationProviders;
+    private final ThreadPoolTaskExecutor translationExecutor;
+    private final StringRedisTemplate stringRedisTemplate;
 
     private static final Pattern CHINESE_PATTERN = Pattern.compile("[\\u4e00-\\u9fa5]");
-    private static final String TRANSLATION_API_URL = "https://api.mymemory.translated.net/get?q={text}&langpair=zh|en";
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    private static final String REDIS_KEY_PREFIX = "translation:zh-en:";
+
+    @Value("${translation.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${translation.cache.redis-ttl-days:30}")
+    private long redisTtlDays;
+
+    @Value("${translation.budget-ms:800}")
+    private long budgetMillis;
+
+    @Value("${translation.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${translation.breaker.open-ms:30000}")
+    private long breakerOpenMillis;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> providerHits = new ConcurrentHashMap<>();
+    private final LongAdder untranslated = new LongAdder();
+
+    /** 正在加载的原文，同一原文的并发未命中只由第一个请求加载，其余请求等待它的结果 */
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private Cache<String, String> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+    }
 
     public boolean containsChinese(String text) {
         return StringUtils.hasText(text) && CHINESE_PATTERN.matcher(text).find();
@@ -30,21 +87,144 @@ public class TranslationService {
             return text;
         }
 
+        String normalized = normalize(text);
+        String translated = localCache.getIfPresent(normalized);
+        if (translated == null) {
+            translated = loadOnce(normalized);
+        }
+        return translated != null ? translated : text;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("localEntries", localCache.estimatedSize());
+        stats.put("localHitRate", localCache.stats().hitRate());
+        providerHits.forEach((name, hits) -> stats.put(name + "Hits", hits.sum()));
+        breakers.forEach((name, breaker) -> stats.put(name + "Breaker", breaker.state()));
+        stats.put("untranslated", untranslated.sum());
+        return stats;
+    }
+
+    /**
+     * 加载在调用线程中进行，不放在 Caffeine 的 compute 里（加载最长要等一个延迟预算，会阻塞同一哈希桶的其他键）；
+     * 加载结果为 null（失败）时不写入缓存
+     */
+    private String loadOnce(String normalized) {
+        CompletableFuture<String> loading = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(normalized, loading);
+        if (existing != null) {
+            try {
+                return existing.get(budgetMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException | TimeoutException e) {
+                return null;
+            }
+        }
+
+        String translated = null;
+        try {
+            translated = loadTranslation(normalized);
+            if (translated != null) {
+                localCache.put(normalized, translated);
+            }
+            return translated;
+        } finally {
+            inFlight.remove(normalized, loading);
+            loading.complete(translated);
+        }
+    }
+
+    private String loadTranslation(String normalized) {
+        String redisKey = REDIS_KEY_PREFIX + normalized;
         try {
-            String url = TRANSLATION_API_URL.replace("{text}", text);
-            String response = restTemplate.getForObject(url, String.class);
-            
-            JsonNode root = objectMapper.readTree(response);
-            String translatedText = root.path("responseData").path("translatedText").asText();
-            
-            if (StringUtils.hasText(translatedText)) {
-                log.info("Translated '{}' to '{}'", text, translatedText);
-                return translatedText;
+            String cached = stringRedisTemplate.opsForValue().get(redisKey);
+            if (cached != null) {
+                return cached;
             }
         } catch (Exception e) {
-            log.error("Translation failed for text: {}", text, e);
+            log.warn("读取翻译缓存失败: {}", e.getMessage());
         }
-        
-        return text;
+
+        String translated = translateWithProviders(normalized);
+        if (translated != null) {
+            try {
+                stringRedisTemplate.opsForValue().set(redisKey, translated, Duration.ofDays(redisTtlDays));
+            } catch (Exception e) {
+                log.warn("写入翻译缓存失败: {}", e.getMessage());
+            }
+        }
+        return translated;
+    }
+
+    /**
+     * 按顺序尝试各提供方；远程提供方在线程池中执行，超出剩余预算或熔断打开时直接跳过
+     */
+    private String translateWithProviders(String text) {
+        long deadline = System.currentTimeMillis() + budgetMillis;
+        for (TranslationProvider provider : translationProviders) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            String translated = provider.isRemote()
+                    ? translateRemote(provider, text, deadline - System.currentTimeMillis())
+                    : translateLocal(provider, text);
+            if (StringUtils.hasText(translated)) {
+                providerHits.computeIfAbsent(provider.name(), k -> new LongAdder()).increment();
+                return translated;
+            }
+        }
+        untranslated.increment();
+        return null;
+    }
+
+    private String translateLocal(TranslationProvider provider, String text) {
+        try {
+            return provider.translate(text);
+        } catch (Exception e) {
+            log.warn("翻译提供方 {} 失败: {}", provider.name(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String translateRemote(TranslationProvider provider, String text, long remainingMillis) {
+        CircuitBreaker breaker = breakers.computeIfAbsent(provider.name(),
+                k -> new CircuitBreaker(breakerFailureThreshold, breakerOpenMillis));
+        if (remainingMillis <= 0 || !breaker.tryAcquire()) {
+            return null;
+        }
+
+        Future<String> future = null;
+        try {
+            future = translationExecutor.submit(() -> provider.translate(text));
+            String translated = future.get(remainingMillis, TimeUnit.MILLISECONDS);
+            breaker.recordSuccess();
+            return translated;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            breaker.recordFailure();
+            log.warn("翻译提供方 {} 超出剩余延迟预算 {} ms, 原文: {}", provider.name(), remainingMillis, text);
+        } catch (InterruptedException e) {
+            // 调用方被中断不代表提供方故障，释放半开探测名额但不计入熔断
+            future.cancel(true);
+            breaker.release();
+            Thread.currentThread().interrupt();
+        } catch (TaskRejectedException e) {
+            // 线程池已满属于本地过载，不计入熔断，本次按未翻译处理
+            breaker.release();
+            log.warn("翻译线程池已满，跳过提供方 {}", provider.name());
+        } catch (Exception e) {
+            breaker.recordFailure();
+            log.warn("翻译提供方 {} 失败: {}", provider.name(), e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 缓存键：去首尾空白、合并连续空白、英文部分转小写
+     */
+    private static String normalize(String text) {
+        return WHITESPACE_PATTERN.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
     }
 }
@@ -6,6 +6,10 @@ public class CachedPage<T> {
 
     private List<T> records;
     private long total;
+    /** 写入缓存的时间戳（毫秒） */
+    private long cachedAt;
+    /** 本次加载耗时（毫秒），用于提前刷新的概率计算 */
+    private long loadMillis;
 
     public CachedPage() {
     }
@@ -34,4 +38,20 @@ public class CachedPage<T> {
     public void setTotal(long total) {
         this.total = total;
     }
+
+    public long getCachedAt() {
+        return cachedAt;
+    }
+
+    public void setCachedAt(long cachedAt) {
+        this.cachedAt = cachedAt;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    public void setLoadMillis(long loadMillis) {
+        this.loadMillis = loadMillis;
+    }
 }
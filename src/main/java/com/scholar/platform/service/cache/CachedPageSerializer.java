@@ -0,0 +1,316 @@
+package com.scholar.platform.service.cache;
+
+import com.scholar.platform.dto.PatentDTO;
+import com.scholar.platform.entity.Achievement;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 检索结果缓存页的紧凑二进制序列化
+ * 格式：魔数 + 版本号 + 记录类型，之后是 Deflate 压缩的记录体（头部为总数、写入时间和加载耗时）；
+ * 成果只保存 Achievement.toDTO 用到的字段（不含 orcid/ror 等），字符串为 UTF-8 变长编码。
+ * 版本或魔数不匹配（包括旧的 JSON 值）时按未命中处理。
+ */
+public class CachedPageSerializer implements RedisSerializer<CachedPage<?>> {
+
+    private static final byte MAGIC = (byte) 0xC7;
+    private static final byte VERSION = 2;
+
+    private static final byte TYPE_EMPTY = 0;
+    private static final byte TYPE_ACHIEVEMENT = 1;
+    private static final byte TYPE_PATENT = 2;
+
+    @Override
+    public byte[] serialize(CachedPage<?> page) throws SerializationException {
+        if (page == null) {
+            return new byte[0];
+        }
+        List<?> records = page.getRecords() == null ? Collections.emptyList() : page.getRecords();
+        byte type = resolveType(records);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + records.size() * 512);
+        bytes.write(MAGIC);
+        bytes.write(VERSION);
+        bytes.write(type);
+        try (DataOutputStream out = new DataOutputStream(
+                new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_SPEED)))) {
+            out.writeLong(page.getTotal());
+            out.writeLong(page.getCachedAt());
+            writeVarInt(out, (int) Math.min(Integer.MAX_VALUE, page.getLoadMillis()));
+            writeVarInt(out, records.size());
+            for (Object record : records) {
+                if (type == TYPE_ACHIEVEMENT) {
+                    writeAchievement(out, (Achievement) record);
+                } else {
+                    writePatent(out, (PatentDTO) record);
+                }
+            }
+        } catch (IOException e) {
+            throw new SerializationException("缓存页序列化失败", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public CachedPage<?> deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < 3 || bytes[0] != MAGIC || bytes[1] != VERSION) {
+            return null;
+        }
+        byte type = bytes[2];
+        try (DataInputStream in = new DataInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(bytes, 3, bytes.length - 3)))) {
+            long total = in.readLong();
+            long cachedAt = in.readLong();
+            long loadMillis = readVarInt(in);
+            int size = readVarInt(in);
+            List<Object> records = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                if (type == TYPE_ACHIEVEMENT) {
+                    records.add(readAchievement(in));
+                } else if (type == TYPE_PATENT) {
+                    records.add(readPatent(in));
+                } else {
+                    throw new SerializationException("未知的缓存记录类型: " + type);
+                }
+            }
+            CachedPage<Object> page = CachedPage.of(records, total);
+            page.setCachedAt(cachedAt);
+            page.setLoadMillis(loadMillis);
+            return page;
+        } catch (IOException e) {
+            throw new SerializationException("缓存页反序列化失败", e);
+        }
+    }
+
+    private static byte resolveType(List<?> records) {
+        if (records.isEmpty()) {
+            return TYPE_EMPTY;
+        }
+        Object first = records.get(0);
+        if (first instanceof Achievement) {
+            return TYPE_ACHIEVEMENT;
+        }
+        if (first instanceof PatentDTO) {
+            return TYPE_PATENT;
+        }
+        throw new SerializationException("不支持缓存的记录类型: " + first.getClass().getName());
+    }
+
+    private static void writeAchievement(DataOutputStream out, Achievement a) throws IOException {
+        writeString(out, a.getId());
+        writeString(out, a.getDoi());
+        writeString(out, a.getTitle());
+        writeString(out, a.getPublicationDate());
+        writeStringList(out, a.getRelatedWorks());
+        writeInteger(out, a.getCitedByCount());
+        writeString(out, a.getLanguage());
+        writeStringList(out, a.getConcepts());
+        writeString(out, a.getLandingPageUrl());
+        writeString(out, a.getAbstractText());
+        writeInteger(out, a.getFavouriteCount());
+        writeInteger(out, a.getReadCount());
+        writeStringList(out, a.getAuthorIds());
+        writeStringList(out, a.getInstitutionIds());
+        writeStringList(out, a.getAuthorNames());
+        writeStringList(out, a.getInstitutionNames());
+
+        List<Achievement.Authorship> authorships = a.getAuthorships();
+        if (authorships == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, authorships.size() + 1);
+        for (Achievement.Authorship authorship : authorships) {
+            Achievement.Authorship.Author author = authorship.getAuthor();
+            out.writeBoolean(author != null);
+            if (author != null) {
+                writeString(out, author.getId());
+                writeString(out, author.getDisplayName());
+            }
+            List<Achievement.Authorship.Institution> institutions = authorship.getInstitutions();
+            writeVarInt(out, institutions == null ? 0 : institutions.size() + 1);
+            if (institutions != null) {
+                for (Achievement.Authorship.Institution inst : institutions) {
+                    writeString(out, inst.getId());
+                    writeString(out, inst.getDisplayName());
+                }
+            }
+        }
+    }
+
+    private static Achievement readAchievement(DataInputStream in) throws IOException {
+        Achievement a = new Achievement();
+        a.setId(readString(in));
+        a.setDoi(readString(in));
+        a.setTitle(readString(in));
+        a.setPublicationDate(readString(in));
+        a.setRelatedWorks(readStringList(in));
+        a.setCitedByCount(readInteger(in));
+        a.setLanguage(readString(in));
+        a.setConcepts(readStringList(in));
+        a.setLandingPageUrl(readString(in));
+        a.setAbstractText(readString(in));
+        a.setFavouriteCount(readInteger(in));
+        a.setReadCount(readInteger(in));
+        a.setAuthorIds(readStringList(in));
+        a.setInstitutionIds(readStringList(in));
+        a.setAuthorNames(readStringList(in));
+        a.setInstitutionNames(readStringList(in));
+
+        int authorshipCount = readVarInt(in);
+        if (authorshipCount > 0) {
+            List<Achievement.Authorship> authorships = new ArrayList<>(authorshipCount - 1);
+            for (int i = 0; i < authorshipCount - 1; i++) {
+                Achievement.Authorship authorship = new Achievement.Authorship();
+                if (in.readBoolean()) {
+                    Achievement.Authorship.Author author = new Achievement.Authorship.Author();
+                    author.setId(readString(in));
+                    author.setDisplayName(readString(in));
+                    authorship.setAuthor(author);
+                }
+                int institutionCount = readVarInt(in);
+                if (institutionCount > 0) {
+                    List<Achievement.Authorship.Institution> institutions = new ArrayList<>(institutionCount - 1);
+                    for (int j = 0; j < institutionCount - 1; j++) {
+                        Achievement.Authorship.Institution inst = new Achievement.Authorship.Institution();
+                        inst.setId(readString(in));
+                        inst.setDisplayName(readString(in));
+                        institutions.add(inst);
+                    }
+                    authorship.setInstitutions(institutions);
+                }
+                authorships.add(authorship);
+            }
+            a.setAuthorships(authorships);
+        }
+        return a;
+    }
+
+    private static void writePatent(DataOutputStream out, PatentDTO p) throws IOException {
+        writeString(out, p.getId());
+        writeString(out, p.getPatentName());
+        writeString(out, p.getPatentType());
+        writeString(out, p.getApplicant());
+        writeString(out, p.getApplicantType());
+        writeString(out, p.getApplicationNumber());
+        writeInteger(out, p.getApplicationYear());
+        writeString(out, p.getGrantNumber());
+        writeInteger(out, p.getGrantYear());
+        writeString(out, p.getIpcCode());
+        writeString(out, p.getInventor());
+        writeString(out, p.getAbstractText());
+        writeInteger(out, p.getCitedCount());
+    }
+
+    private static PatentDTO readPatent(DataInputStream in) throws IOException {
+        PatentDTO p = new PatentDTO();
+        p.setId(readString(in));
+        p.setPatentName(readString(in));
+        p.setPatentType(readString(in));
+        p.setApplicant(readString(in));
+        p.setApplicantType(readString(in));
+        p.setApplicationNumber(readString(in));
+        p.setApplicationYear(readInteger(in));
+        p.setGrantNumber(readString(in));
+        p.setGrantYear(readInteger(in));
+        p.setIpcCode(readString(in));
+        p.setInventor(readString(in));
+        p.setAbstractText(readString(in));
+        p.setCitedCount(readInteger(in));
+        return p;
+    }
+
+    // 长度字段统一存 n+1，0 表示 null
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length + 1);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length - 1];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStringList(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, values.size() + 1);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStringList(DataInputStream in) throws IOException {
+        int size = readVarInt(in);
+        if (size == 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size - 1);
+        for (int i = 0; i < size - 1; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            // zigzag 编码，负数也能用较少字节表示
+            writeVarInt(out, (value << 1) ^ (value >> 31));
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int raw = readVarInt(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("varint 格式错误");
+    }
+}
@@ -0,0 +1,140 @@
+package com.scholar.platform.service.cache;
+
+import com.scholar.platform.dto.ScholarRankingDTO;
+import com.scholar.platform.service.ScholarRankingBatchService;
+import com.scholar.platform.util.RankingTableUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 学者排行榜的内存快照
+ * 每个排行榜表对应一个不可变列表，启动时全部加载，读取时不访问数据库；
+ * 排行榜任务替换某张表后调用 reload，本节点立即重载并通过 Redis pub/sub 通知其他节点重载同一张表
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LeaderboardCache implements MessageListener {
+
+    private static final String RELOAD_CHANNEL = "leaderboard:reload";
+    private static final int BOARD_SIZE = 100;
+    /** 加载失败的表在读取时最多每隔这么久重试一次 */
+    private static final long RETRY_INTERVAL_MILLIS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Map<String, List<ScholarRankingDTO>> boards = new ConcurrentHashMap<>();
+
+    /** 加载失败的表 -> 允许下次重试的时间（epoch 毫秒） */
+    private final Map<String, Long> retryAt = new ConcurrentHashMap<>();
+
+    /** 只缓存排行榜任务会生成的表，其他领域名直接返回空榜，避免任意输入撑大缓存 */
+    private final Set<String> knownTables = knownTables();
+
+    private static Set<String> knownTables() {
+        Set<String> tables = new HashSet<>();
+        tables.add(RankingTableUtil.GLOBAL_TABLE);
+        for (String domain : ScholarRankingBatchService.DOMAINS) {
+            tables.add(RankingTableUtil.tableName(domain));
+        }
+        return Set.copyOf(tables);
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RELOAD_CHANNEL));
+        for (String table : knownTables) {
+            loadTable(table);
+        }
+        log.info("排行榜快照加载完成: {} 个, 失败 {} 个", boards.size() - retryAt.size(), retryAt.size());
+    }
+
+    public List<ScholarRankingDTO> get(String domain) {
+        String table = RankingTableUtil.tableName(domain);
+        if (!knownTables.contains(table)) {
+            return Collections.emptyList();
+        }
+        Long deadline = retryAt.get(table);
+        if (deadline != null && System.currentTimeMillis() >= deadline
+                && retryAt.replace(table, deadline, System.currentTimeMillis() + RETRY_INTERVAL_MILLIS)) {
+            // 上次加载失败（如表尚未生成）：每个间隔只由一个请求重试，其余请求直接返回当前快照
+            loadTable(table);
+        }
+        return boards.getOrDefault(table, Collections.emptyList());
+    }
+
+    /**
+     * 重载指定排行榜表并广播给其他节点
+     */
+    public void reload(String tableName) {
+        loadTable(tableName);
+        stringRedisTemplate.convertAndSend(RELOAD_CHANNEL, tableName);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String table = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (knownTables.contains(table)) {
+            loadTable(table);
+        }
+    }
+
+    private void loadTable(String tableName) {
+        String sql = "SELECT * FROM `" + tableName + "` ORDER BY influence_score DESC LIMIT " + BOARD_SIZE;
+
+        try {
+            List<ScholarRankingDTO> board = List.copyOf(jdbcTemplate.query(sql, (rs, rowNum) -> {
+                ScholarRankingDTO dto = new ScholarRankingDTO();
+                // 1. 设置外层属性
+                dto.setInfluenceScore(rs.getDouble("influence_score"));
+                dto.setRank(rowNum + 1); // 设置排名
+
+                // 2. 创建并设置内层 ScholarInfo 对象
+                ScholarRankingDTO.ScholarInfo info = new ScholarRankingDTO.ScholarInfo();
+                info.setId(rs.getString("id"));
+                info.setDisplayName(rs.getString("display_name"));
+                info.setHIndex(rs.getInt("h_index"));
+                info.setI10Index(rs.getInt("i10_index"));
+                info.setWorksCount(rs.getInt("works_count"));
+                info.setCitedCount(rs.getInt("cited_count"));
+
+                // 3. 处理 tags: 数据库存的是字符串 "Tag1, Tag2"，转为 List
+                String tagsStr = rs.getString("primary_tags");
+                if (tagsStr != null && !tagsStr.isEmpty()) {
+                    info.setPrimaryTags(List.of(tagsStr.split(",\\s*")));
+                } else {
+                    info.setPrimaryTags(Collections.emptyList());
+                }
+
+                dto.setScholar(info);
+                return dto;
+            }));
+            boards.put(tableName, board);
+            retryAt.remove(tableName);
+        } catch (Exception e) {
+            // 表不存在（排行榜尚未生成）时记为空榜，已有快照则保留；读取时按间隔重试，排行榜任务生成后通过 reload 重载
+            boards.putIfAbsent(tableName, Collections.emptyList());
+            retryAt.put(tableName, System.currentTimeMillis() + RETRY_INTERVAL_MILLIS);
+            log.warn("加载排行榜失败，表名: {}, 错误: {}", tableName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.scholar.platform.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.scholar.platform.entity.Author;
+import com.scholar.platform.entity.Institution;
+import com.scholar.platform.repository.AuthorRepository;
+import com.scholar.platform.repository.InstitutionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 高级检索过滤条件中作者名/机构名到 ID 的解析缓存
+ * 查不到的名字也缓存（空 Optional），但 TTL 更短，便于新导入的数据尽快生效；
+ * 两个名字都未命中时，作者与机构的 ES 查询并行执行
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NameIdResolver {
+
+    private final AuthorRepository authorRepository;
+    private final InstitutionRepository institutionRepository;
+    private final ThreadPoolTaskExecutor searchLookupExecutor;
+
+    @Value("${search.id-cache.max-size:20000}")
+    private long maxSize;
+
+    @Value("${search.id-cache.ttl-seconds:1800}")
+    private long ttlSeconds;
+
+    @Value("${search.id-cache.negative-ttl-seconds:120}")
+    private long negativeTtlSeconds;
+
+    private Cache<String, Optional<String>> authorIds;
+    private Cache<String, Optional<String>> institutionIds;
+
+    public record ResolvedIds(String authorId, String institutionId) {
+    }
+
+    @PostConstruct
+    public void init() {
+        authorIds = newCache();
+        institutionIds = newCache();
+    }
+
+    /**
+     * 解析作者与机构 ID，名字为空或查不到时对应 ID 为 null
+     */
+    public ResolvedIds resolve(String authorName, String institutionName) {
+        String authorKey = normalize(authorName);
+        String institutionKey = normalize(institutionName);
+
+        Optional<String> authorId = authorKey == null ? Optional.empty() : authorIds.getIfPresent(authorKey);
+        Optional<String> institutionId = institutionKey == null ? Optional.empty()
+                : institutionIds.getIfPresent(institutionKey);
+
+        if (authorId == null && institutionId == null) {
+            // 两个都需要回源：作者查询交给线程池，机构查询在当前线程执行
+            CompletableFuture<Optional<String>> authorFuture = CompletableFuture.supplyAsync(
+                    () -> authorIds.get(authorKey, this::findAuthorId), searchLookupExecutor);
+            institutionId = institutionIds.get(institutionKey, this::findInstitutionId);
+            authorId = join(authorFuture);
+        } else if (authorId == null) {
+            authorId = authorIds.get(authorKey, this::findAuthorId);
+        } else if (institutionId == null) {
+            institutionId = institutionIds.get(institutionKey, this::findInstitutionId);
+        }
+
+        return new ResolvedIds(authorId.orElse(null), institutionId.orElse(null));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("authorEntries", authorIds.estimatedSize());
+        stats.put("authorHitRate", authorIds.stats().hitRate());
+        stats.put("institutionEntries", institutionIds.estimatedSize());
+        stats.put("institutionHitRate", institutionIds.stats().hitRate());
+        return stats;
+    }
+
+    private Optional<String> findAuthorId(String name) {
+        Page<Author> authors = authorRepository.findByDisplayName(name, Pageable.ofSize(1));
+        return authors.hasContent() ? Optional.ofNullable(authors.getContent().get(0).getId()) : Optional.empty();
+    }
+
+    private Optional<String> findInstitutionId(String name) {
+        Page<Institution> institutions = institutionRepository.findByDisplayName(name, Pageable.ofSize(1));
+        return institutions.hasContent() ? Optional.ofNullable(institutions.getContent().get(0).getId())
+                : Optional.empty();
+    }
+
+    private static Optional<String> join(CompletableFuture<Optional<String>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null || name.trim().isEmpty() ? null : name.trim();
+    }
+
+    private Cache<String, Optional<String>> newCache() {
+        long positiveNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        long negativeNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Optional<String>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<String> value, long currentTime) {
+                        return value.isPresent() ? positiveNanos : negativeNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<String> value, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<String> value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+}
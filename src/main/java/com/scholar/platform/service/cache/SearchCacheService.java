@@ -1,36 +1,294 @@
 package com.scholar.platform.service.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.scholar.platform.dto.PatentDTO;
+import com.scholar.platform.entity.Achievement;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
+/**
+ * 检索结果两级缓存
+ * L1：进程内 Caffeine，按估算字节数限制容量，TTL 短于 Redis，命中时无需网络和反序列化
+ * L2：Redis，多节点共享，值为 CachedPageSerializer 的压缩二进制格式；写入和删除都通过 Redis pub/sub 广播给其他节点清理各自的 L1，
+ * L1 条目的存活时间不超过对应 Redis 条目的剩余 TTL
+ * 加载：同一 key 的并发未命中在本节点只触发一次查询；临近过期时按概率提前异步刷新，避免到期瞬间集中回源
+ */
 @Service
+@Slf4j
 @RequiredArgsConstructor
-public class SearchCacheService {
+public class SearchCacheService implements MessageListener {
 
-    private final RedisTemplate<String, Object> redisTemplate;
     private static final Duration TTL = Duration.ofMinutes(5);
+    private static final String INVALIDATION_CHANNEL = "search-cache:invalidate";
+    private static final String SEPARATOR = "|";
+    /** 提前刷新的激进程度，越大越早刷新 */
+    private static final double EARLY_REFRESH_BETA = 1.0;
+
+    private final RedisTemplate<String, CachedPage<?>> searchCacheRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ThreadPoolTaskExecutor searchRefreshExecutor;
+
+    @Value("${search-cache.local.max-weight-bytes:67108864}")
+    private long localMaxWeightBytes;
+
+    @Value("${search-cache.local.ttl-seconds:60}")
+    private long localTtlSeconds;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    private final SingleFlight<String, CachedPage<?>> singleFlight = new SingleFlight<>();
+
+    private Cache<String, CachedPage<?>> localCache;
+
+    @PostConstruct
+    public void init() {
+        long localTtlNanos = Duration.ofSeconds(Math.min(localTtlSeconds, TTL.toSeconds() - 1)).toNanos();
+        localCache = Caffeine.newBuilder()
+                .maximumWeight(localMaxWeightBytes)
+                .weigher((String key, CachedPage<?> page) -> estimateWeight(key, page))
+                .expireAfter(new Expiry<String, CachedPage<?>>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedPage<?> page, long currentTime) {
+                        return localTtlNanos(page, localTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedPage<?> page, long currentTime, long currentDuration) {
+                        return localTtlNanos(page, localTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedPage<?> page, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
 
     @SuppressWarnings("unchecked")
     public <T> CachedPage<T> get(String key) {
-        Object value = redisTemplate.opsForValue().get(namespaced(key));
-        if (value instanceof CachedPage<?> cached) {
+        CachedPage<?> local = localCache.getIfPresent(key);
+        if (local != null) {
+            localHits.increment();
+            return (CachedPage<T>) local;
+        }
+        localMisses.increment();
+
+        CachedPage<?> cached = searchCacheRedisTemplate.opsForValue().get(namespaced(key));
+        if (cached != null) {
+            redisHits.increment();
+            localCache.put(key, cached);
             return (CachedPage<T>) cached;
         }
+        redisMisses.increment();
         return null;
     }
 
+    /**
+     * 读取缓存，未命中时调用 loader 加载并写入缓存
+     * 本节点内同一 key 的并发未命中合并为一次加载；命中但临近过期时按概率（XFetch）触发一次后台刷新
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedPage<T> getOrLoad(String key, Supplier<CachedPage<T>> loader) {
+        CachedPage<T> cached = get(key);
+        if (cached != null) {
+            if (shouldRefreshEarly(cached)) {
+                refreshAsync(key, loader);
+            }
+            return cached;
+        }
+        return (CachedPage<T>) singleFlight.execute(key, () -> {
+            // 刚结束的同 key 加载已写入 L1，避免重复回源
+            CachedPage<?> local = localCache.getIfPresent(key);
+            return local != null ? local : load(key, loader);
+        });
+    }
+
+    /**
+     * 无条件重新加载并写入缓存，用于定时预热；与同 key 的并发加载合并
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedPage<T> refresh(String key, Supplier<CachedPage<T>> loader) {
+        return (CachedPage<T>) singleFlight.execute(key, () -> load(key, loader));
+    }
+
+    private <T> CachedPage<T> load(String key, Supplier<CachedPage<T>> loader) {
+        long start = System.currentTimeMillis();
+        CachedPage<T> page = loader.get();
+        long now = System.currentTimeMillis();
+        page.setLoadMillis(now - start);
+        page.setCachedAt(now);
+        loads.increment();
+        put(key, page);
+        return page;
+    }
+
+    private boolean shouldRefreshEarly(CachedPage<?> page) {
+        long expiresAt = page.getCachedAt() + TTL.toMillis();
+        double gap = page.getLoadMillis() * EARLY_REFRESH_BETA * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= expiresAt;
+    }
+
+    private <T> void refreshAsync(String key, Supplier<CachedPage<T>> loader) {
+        if (singleFlight.isInFlight(key)) {
+            return;
+        }
+        earlyRefreshes.increment();
+        searchRefreshExecutor.execute(() -> {
+            try {
+                singleFlight.execute(key, () -> load(key, loader));
+            } catch (Exception e) {
+                log.warn("检索缓存提前刷新失败, key: {}, 错误: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 写入两级缓存，并通知其他节点丢弃同一 key 的旧 L1（下次读取从 Redis 取到新值）
+     */
     public void put(String key, CachedPage<?> page) {
-        redisTemplate.opsForValue().set(namespaced(key), page, TTL);
+        localCache.put(key, page);
+        searchCacheRedisTemplate.opsForValue().set(namespaced(key), page, TTL);
+        publishInvalidation(key);
     }
 
     public void evict(String key) {
-        redisTemplate.delete(namespaced(key));
+        localCache.invalidate(key);
+        searchCacheRedisTemplate.delete(namespaced(key));
+        publishInvalidation(key);
+    }
+
+    private void publishInvalidation(String key) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + SEPARATOR + key);
+        } catch (Exception e) {
+            // 广播失败时其他节点的 L1 最多保留到自身 TTL 到期
+            log.warn("检索缓存失效广播失败, key: {}, 错误: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * L1 存活时间：配置的本地 TTL 与 Redis 条目剩余 TTL 中的较小者（按写入时间推算）
+     */
+    private static long localTtlNanos(CachedPage<?> page, long localTtlNanos) {
+        if (page.getCachedAt() <= 0) {
+            return localTtlNanos;
+        }
+        long remainingMillis = page.getCachedAt() + TTL.toMillis() - System.currentTimeMillis();
+        return Math.max(0, Math.min(localTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+    }
+
+    /**
+     * 接收其他节点的失效广播，只清理本地 L1
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int idx = body.indexOf(SEPARATOR);
+        if (idx < 0 || body.substring(0, idx).equals(nodeId)) {
+            return;
+        }
+        localCache.invalidate(body.substring(idx + 1));
+    }
+
+    /**
+     * 各级缓存的命中/未命中计数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("localHits", localHits.sum());
+        stats.put("localMisses", localMisses.sum());
+        stats.put("localEntries", localCache.estimatedSize());
+        stats.put("localEvictions", localCache.stats().evictionCount());
+        stats.put("redisHits", redisHits.sum());
+        stats.put("redisMisses", redisMisses.sum());
+        stats.put("loads", loads.sum());
+        stats.put("coalescedLoads", singleFlight.coalescedCount());
+        stats.put("earlyRefreshes", earlyRefreshes.sum());
+        return stats;
     }
 
     private String namespaced(String key) {
         return "search::" + key;
     }
+
+    /**
+     * 粗略估算缓存页占用的字节数，作为 L1 的权重
+     */
+    private static int estimateWeight(String key, CachedPage<?> page) {
+        long bytes = 64L + key.length() * 2L;
+        List<?> records = page.getRecords();
+        if (records != null) {
+            for (Object record : records) {
+                bytes += estimateRecord(record);
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long estimateRecord(Object record) {
+        if (record instanceof Achievement a) {
+            long size = 256;
+            size += len(a.getTitle()) + len(a.getAbstractText()) + len(a.getDoi()) + len(a.getLandingPageUrl());
+            size += len(a.getConcepts()) + len(a.getAuthorNames()) + len(a.getInstitutionNames());
+            size += len(a.getAuthorIds()) + len(a.getInstitutionIds()) + len(a.getRelatedWorks());
+            if (a.getAuthorships() != null) {
+                size += a.getAuthorships().size() * 160L;
+            }
+            return size;
+        }
+        if (record instanceof PatentDTO p) {
+            return 192 + len(p.getPatentName()) + len(p.getAbstractText()) + len(p.getApplicant())
+                    + len(p.getInventor()) + len(p.getIpcCode());
+        }
+        return 512;
+    }
+
+    private static long len(String value) {
+        return value == null ? 0 : 40L + value.length() * 2L;
+    }
+
+    private static long len(List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        long size = 16;
+        for (String value : values) {
+            size += len(value);
+        }
+        return size;
+    }
 }
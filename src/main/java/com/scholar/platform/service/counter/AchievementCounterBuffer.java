@@ -0,0 +1,156 @@
+package com.scholar.platform.service.counter;
+
+import com.scholar.platform.service.AchievementPopularityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 成果阅读数 / 收藏数的写回缓冲
+ * 请求线程只在内存中累加增量（每个成果每个字段一个键，见 WriteBackBuffer），
+ * 由定时任务把聚合后的增量以 _bulk 方式批量写回 ES，避免热点文档上的逐次脚本更新和版本冲突
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AchievementCounterBuffer extends WriteBackBuffer<AchievementCounterBuffer.CounterKey> {
+
+    public static final String READ_COUNT = "readCount";
+    public static final String FAVOURITE_COUNT = "favouriteCount";
+
+    private static final IndexCoordinates INDEX = IndexCoordinates.of("openalex_works");
+    private static final int BULK_SIZE = 500;
+    private static final int RETRY_ON_CONFLICT = 3;
+
+    /**
+     * 一次更新同时应用多个字段的增量，计数不会被减到 0 以下；feature 排序模式下顺带重算热度分
+     */
+    private static final String SCRIPT = "for (entry in params.deltas.entrySet()) { " +
+            "def cur = ctx._source[entry.getKey()]; " +
+            "long base = cur == null ? 0 : cur; " +
+            "ctx._source[entry.getKey()] = Math.max(0, base + entry.getValue()); } " +
+            "if (params.popularity) { " + AchievementPopularityService.POPULARITY_UPDATE_SCRIPT + " }";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final AchievementPopularityService achievementPopularityService;
+
+    public void increment(String achievementId, String field, long delta) {
+        if (achievementId == null) {
+            return;
+        }
+        add(new CounterKey(achievementId, field), delta);
+    }
+
+    @Scheduled(fixedDelayString = "${counter-buffer.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 把本轮增量按文档聚合后以 _bulk 批量写入 ES
+     */
+    @Override
+    protected void writeBack(Map<CounterKey, Long> deltas) {
+        Map<String, Map<String, Long>> deltasById = new LinkedHashMap<>();
+        deltas.forEach((key, delta) -> deltasById.computeIfAbsent(key.achievementId(), id -> new HashMap<>())
+                .merge(key.field(), delta, Long::sum));
+
+        boolean updatePopularity = achievementPopularityService.isFeatureMode();
+        if (updatePopularity) {
+            try {
+                achievementPopularityService.ensureMapping();
+            } catch (Exception e) {
+                log.warn("热度特征映射不可用，本轮不重算热度分: {}", e.getMessage());
+                updatePopularity = false;
+            }
+        }
+
+        List<UpdateQuery> batch = new ArrayList<>(Math.min(deltasById.size(), BULK_SIZE));
+        for (Map.Entry<String, Map<String, Long>> entry : deltasById.entrySet()) {
+            batch.add(toUpdateQuery(entry.getKey(), entry.getValue(), updatePopularity));
+            if (batch.size() >= BULK_SIZE) {
+                sendBulk(batch, deltasById);
+                batch = new ArrayList<>(BULK_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            sendBulk(batch, deltasById);
+        }
+        log.debug("计数增量写回完成: {} 个文档", deltasById.size());
+    }
+
+    @Override
+    protected String writeUnit() {
+        return "Updates";
+    }
+
+    private UpdateQuery toUpdateQuery(String achievementId, Map<String, Long> deltas, boolean updatePopularity) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("deltas", deltas);
+        params.put("popularity", updatePopularity);
+        return UpdateQuery.builder(achievementId)
+                .withScript(SCRIPT)
+                .withParams(params)
+                .withLang("painless")
+                .withScriptType(ScriptType.INLINE)
+                .withRetryOnConflict(RETRY_ON_CONFLICT)
+                .build();
+    }
+
+    private void sendBulk(List<UpdateQuery> batch, Map<String, Map<String, Long>> deltasById) {
+        try {
+            elasticsearchOperations.bulkUpdate(batch, INDEX);
+            recordFlushed(batch.size());
+        } catch (BulkFailureException e) {
+            // 其余条目已经生效；文档不存在等永久性失败丢弃，限流（429）、重试后仍冲突（409）和 5xx 放回缓冲下一轮再写
+            int requeued = 0;
+            for (Map.Entry<String, BulkFailureException.FailureDetails> failure : e.getFailedDocuments().entrySet()) {
+                if (isTransient(failure.getValue())) {
+                    requeue(failure.getKey(), deltasById);
+                    requeued++;
+                }
+            }
+            int failed = e.getFailedDocuments().size();
+            recordFlushed(batch.size() - failed);
+            recordFailed(failed);
+            log.warn("计数增量部分写回失败: {} 条, 其中 {} 条将在下一轮重试: {}", failed, requeued, e.getMessage());
+        } catch (Exception e) {
+            // 整批请求失败时把增量放回缓冲，等待下一轮重试
+            recordFailed(batch.size());
+            log.error("计数增量写回 ES 失败，将在下一轮重试: {}", e.getMessage());
+            for (UpdateQuery query : batch) {
+                requeue(query.getId(), deltasById);
+            }
+        }
+    }
+
+    private static boolean isTransient(BulkFailureException.FailureDetails failure) {
+        Integer status = failure.status();
+        if (status == null) {
+            return failure.errorMessage() == null || !failure.errorMessage().contains("document_missing_exception");
+        }
+        return status == 409 || status == 429 || status >= 500;
+    }
+
+    private void requeue(String achievementId, Map<String, Map<String, Long>> deltasById) {
+        Map<String, Long> deltas = deltasById.get(achievementId);
+        if (deltas != null) {
+            deltas.forEach((field, delta) -> increment(achievementId, field, delta));
+        }
+    }
+
+    record CounterKey(String achievementId, String field) {
+    }
+}
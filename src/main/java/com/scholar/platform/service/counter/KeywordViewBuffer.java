@@ -0,0 +1,110 @@
+package com.scholar.platform.service.counter;
+
+import com.scholar.platform.service.HotTopicsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 论文浏览触发的关键词计数写回缓冲
+ * 详情页请求只在内存中累加（每个关键词每天一个键，见 WriteBackBuffer），
+ * 定时任务按日期分组，以 INSERT ... ON DUPLICATE KEY UPDATE 在同一事务中批量写入
+ * paper_keywords 的累计总数（依赖 keyword 唯一索引）和 paper_keyword_daily 的当日计数
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class KeywordViewBuffer extends WriteBackBuffer<KeywordViewBuffer.KeywordDay> {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HotTopicsService hotTopicsService;
+
+    // 行别名写法（MySQL 8.0.19+），VALUES() 引用新值的写法已被弃用
+    private static final String TOTAL_UPSERT_SQL = "INSERT INTO paper_keywords (id, keyword, cnt) VALUES (?, ?, ?) AS new " +
+            "ON DUPLICATE KEY UPDATE cnt = paper_keywords.cnt + new.cnt";
+    private static final String DAILY_UPSERT_SQL = "INSERT INTO paper_keyword_daily (keyword, day, cnt) VALUES (?, ?, ?) AS new " +
+            "ON DUPLICATE KEY UPDATE cnt = paper_keyword_daily.cnt + new.cnt";
+
+    public void record(List<String> keywords) {
+        if (keywords == null || keywords.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isBlank()) {
+                add(new KeywordDay(keyword, today), 1);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${keyword-buffer.flush-interval-ms:10000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 按日期分批写入；整批失败时放回缓冲等待下一轮
+     */
+    @Override
+    protected void writeBack(Map<KeywordDay, Long> deltas) {
+        Map<LocalDate, Map<String, Long>> deltasByDay = new LinkedHashMap<>();
+        deltas.forEach((key, delta) -> deltasByDay.computeIfAbsent(key.day(), d -> new LinkedHashMap<>())
+                .merge(key.keyword(), delta, Long::sum));
+
+        for (Map.Entry<LocalDate, Map<String, Long>> entry : deltasByDay.entrySet()) {
+            List<Map.Entry<String, Long>> rows = new ArrayList<>(entry.getValue().entrySet());
+            for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                writeBatch(entry.getKey(), rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+            }
+        }
+    }
+
+    @Override
+    protected String writeUnit() {
+        return "Rows";
+    }
+
+    private void writeBatch(LocalDate day, List<Map.Entry<String, Long>> rows) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(TOTAL_UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, UUID.randomUUID().toString());
+                    ps.setString(2, row.getKey());
+                    ps.setLong(3, row.getValue());
+                });
+                jdbcTemplate.batchUpdate(DAILY_UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, row.getKey());
+                    ps.setDate(2, Date.valueOf(day));
+                    ps.setLong(3, row.getValue());
+                });
+            });
+            recordFlushed(rows.size());
+            Map<String, Long> written = new LinkedHashMap<>();
+            rows.forEach(row -> written.put(row.getKey(), row.getValue()));
+            hotTopicsService.applyDeltas(day, written);
+        } catch (Exception e) {
+            recordFailed(rows.size());
+            log.error("关键词计数写回失败，将在下一轮重试: {}", e.getMessage());
+            for (Map.Entry<String, Long> row : rows) {
+                add(new KeywordDay(row.getKey(), day), row.getValue());
+            }
+        }
+    }
+
+    record KeywordDay(String keyword, LocalDate day) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.scholar.platform.service.counter;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 计数增量写回缓冲的通用部分
+ * 请求线程只在内存中累加增量（每个键一个 LongAdder），由子类的定时任务调用 flush 取走增量并批量写回存储；
+ * 写回失败的增量由子类通过 add 放回缓冲，下一轮再写
+ *
+ * @param <K> 计数键，需要正确实现 equals/hashCode（一般用 record）
+ */
+@Slf4j
+public abstract class WriteBackBuffer<K> {
+
+    private final ConcurrentHashMap<K, PendingCounter> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder flushedWrites = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+
+    /**
+     * 把本轮取走的增量写回存储；没有增量时不会被调用
+     */
+    protected abstract void writeBack(Map<K, Long> deltas);
+
+    /**
+     * stats 中写回条数的单位，如 Updates、Rows
+     */
+    protected abstract String writeUnit();
+
+    protected void add(K key, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        PendingCounter counter = pending.computeIfAbsent(key, k -> new PendingCounter());
+        counter.adder.add(delta);
+        if (counter.retired) {
+            // 计数器在累加前后被 flush 移出了表，这次增量可能落在了 flush 收尾之后：取走旧计数器上的剩余增量放回表中。
+            // 与 flush 收尾都用 sumThenReset，每份增量只会被其中一方取走
+            long moved = counter.adder.sumThenReset();
+            if (moved != 0) {
+                add(key, moved);
+            }
+        }
+    }
+
+    protected void recordFlushed(long writes) {
+        flushedWrites.add(writes);
+    }
+
+    protected void recordFailed(long writes) {
+        failedWrites.add(writes);
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        log.info("应用关闭，{} 写回剩余增量: {} 项", getClass().getSimpleName(), pending.size());
+        flush();
+    }
+
+    /**
+     * 取走当前累积的增量并写回
+     * sumThenReset 逐个 cell 原子取走，不会丢失并发累加；连续两轮为 0 的条目才从表中移除，
+     * 移除后标记为 retired，之后仍落在它上面的增量由 add 自行搬回表中
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+
+        Map<K, Long> deltas = new LinkedHashMap<>();
+        for (Map.Entry<K, PendingCounter> entry : pending.entrySet()) {
+            K key = entry.getKey();
+            PendingCounter counter = entry.getValue();
+            long delta = counter.adder.sumThenReset();
+            if (delta != 0) {
+                counter.idleFlushes = 0;
+                deltas.put(key, delta);
+            } else if (++counter.idleFlushes >= 2 && pending.remove(key, counter)) {
+                // 先标记 retired 再取走剩余增量：在此之前落下的增量由这里取走，之后落下的由 add 看到 retired 后取走
+                counter.retired = true;
+                long late = counter.adder.sumThenReset();
+                if (late != 0) {
+                    add(key, late);
+                }
+            }
+        }
+        if (!deltas.isEmpty()) {
+            writeBack(deltas);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        flushCount.incrementAndGet();
+        lastFlushMillis.set(elapsed);
+        maxFlushMillis.accumulateAndGet(elapsed, Math::max);
+    }
+
+    /**
+     * 缓冲区运行指标：待写回条目数与增量合计、写回次数与耗时
+     */
+    public Map<String, Object> stats() {
+        long pendingDelta = 0;
+        for (PendingCounter counter : pending.values()) {
+            pendingDelta += Math.abs(counter.adder.sum());
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingKeys", pending.size());
+        stats.put("pendingDelta", pendingDelta);
+        stats.put("flushCount", flushCount.get());
+        stats.put("flushed" + writeUnit(), flushedWrites.sum());
+        stats.put("failed" + writeUnit(), failedWrites.sum());
+        stats.put("lastFlushMillis", lastFlushMillis.get());
+        stats.put("maxFlushMillis", maxFlushMillis.get());
+        return stats;
+    }
+
+    private static final class PendingCounter {
+        private final LongAdder adder = new LongAdder();
+        private int idleFlushes;
+        private volatile boolean retired;
+    }
+}
@@ -0,0 +1,12 @@
+package com.scholar.platform.service.export;
+
+import java.util.List;
+
+/**
+ * 导出批次的处理逻辑；抛出异常会终止整个导出
+ */
+@FunctionalInterface
+public interface BatchConsumer<T> {
+
+    void accept(List<T> batch) throws Exception;
+}
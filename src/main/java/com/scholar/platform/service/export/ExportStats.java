@@ -0,0 +1,7 @@
+package com.scholar.platform.service.export;
+
+/**
+ * 一次导出的统计：文档数、批次数、耗时
+ */
+public record ExportStats(long documents, long batches, long elapsedMillis) {
+}
@@ -0,0 +1,240 @@
+package com.scholar.platform.service.export;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 全索引流式导出
+ * 在同一个 point-in-time 上按 slice 切成 N 片并行 search_after 翻页，批次放入有界队列，
+ * 由消费线程交给调用方的 BatchConsumer 处理；队列满时读取线程阻塞，内存占用只与队列容量有关，与索引大小无关。
+ * 任一页出现分片失败或超时即终止导出并抛出异常，调用方不会拿到缺了文档的结果
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class IndexExporter {
+
+    private static final String KEEP_ALIVE = "2m";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    @Value("${export.slices:4}")
+    private int defaultSlices;
+
+    @Value("${export.batch-size:1000}")
+    private int defaultBatchSize;
+
+    @Value("${export.queue-capacity:8}")
+    private int defaultQueueCapacity;
+
+    @Value("${export.consumer-threads:1}")
+    private int defaultConsumerThreads;
+
+    /**
+     * 导出参数：切片数、每批文档数、队列容量（批）、消费线程数
+     */
+    public record ExportOptions(int slices, int batchSize, int queueCapacity, int consumerThreads) {
+    }
+
+    public ExportOptions defaultOptions() {
+        return new ExportOptions(defaultSlices, defaultBatchSize, defaultQueueCapacity, defaultConsumerThreads);
+    }
+
+    public <T> ExportStats export(String index, Class<T> type, Query query, List<String> includes,
+            BatchConsumer<T> consumer) {
+        return export(index, type, query, includes, consumer, defaultOptions());
+    }
+
+    /**
+     * @param query    过滤条件，为 null 时导出全部文档
+     * @param includes 需要的 _source 字段，为 null 或空时返回完整文档
+     */
+    public <T> ExportStats export(String index, Class<T> type, Query query, List<String> includes,
+            BatchConsumer<T> consumer, ExportOptions options) {
+        long start = System.currentTimeMillis();
+        int slices = Math.max(1, options.slices());
+        int consumers = Math.max(1, options.consumerThreads());
+        BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(Math.max(1, options.queueCapacity()));
+        List<T> endOfStream = new ArrayList<>(0);
+        AtomicLong documents = new AtomicLong();
+        AtomicLong batches = new AtomicLong();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        String pitId = openPointInTime(index);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(slices + consumers,
+                r -> new Thread(r, "export-" + index + "-" + threadIndex.incrementAndGet()));
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int slice = 0; slice < slices; slice++) {
+                int sliceId = slice;
+                producers.add(executor.submit(() -> {
+                    try {
+                        readSlice(pitId, sliceId, slices, type, query, includes, options.batchSize(), queue, failure);
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }));
+            }
+            List<Future<?>> consumerTasks = new ArrayList<>();
+            for (int i = 0; i < consumers; i++) {
+                consumerTasks.add(executor.submit(() -> {
+                    try {
+                        while (true) {
+                            List<T> batch = queue.take();
+                            if (batch == endOfStream) {
+                                return;
+                            }
+                            if (failure.get() == null) {
+                                consumer.accept(batch);
+                                documents.addAndGet(batch.size());
+                                batches.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                        // 继续取走队列中的批次，避免读取线程阻塞在 put 上
+                        drainUntilEnd(queue, endOfStream);
+                    }
+                }));
+            }
+
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+            for (int i = 0; i < consumers; i++) {
+                queue.put(endOfStream);
+            }
+            for (Future<?> task : consumerTasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            executor.shutdownNow();
+            closePointInTime(pitId);
+        }
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("导出索引 " + index + " 失败: " + failure.get().getMessage(), failure.get());
+        }
+        ExportStats stats = new ExportStats(documents.get(), batches.get(), System.currentTimeMillis() - start);
+        log.info("导出索引 {} 完成: {} 个文档, {} 批, 耗时 {} ms", index, stats.documents(), stats.batches(),
+                stats.elapsedMillis());
+        return stats;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private <T> void readSlice(String pitId, int sliceId, int slices, Class<T> type, Query query,
+            List<String> includes, int batchSize, BlockingQueue<List<T>> queue,
+            AtomicReference<Exception> failure) throws IOException, InterruptedException {
+        String currentPit = pitId;
+        List<FieldValue> searchAfter = null;
+        while (failure.get() == null) {
+            String pit = currentPit;
+            List<FieldValue> after = searchAfter;
+            SearchRequest request = SearchRequest.of(s -> {
+                s.pit(p -> p.id(pit).keepAlive(k -> k.time(KEEP_ALIVE)))
+                        .size(batchSize)
+                        .sort(so -> so.field(f -> f.field("_shard_doc").order(SortOrder.Asc)))
+                        .trackTotalHits(t -> t.enabled(false));
+                if (slices > 1) {
+                    s.slice(sl -> sl.id(String.valueOf(sliceId)).max(slices));
+                }
+                if (query != null) {
+                    s.query(query);
+                }
+                if (includes != null && !includes.isEmpty()) {
+                    s.source(src -> src.filter(f -> f.includes(includes)));
+                }
+                if (after != null) {
+                    s.searchAfter(after);
+                }
+                return s;
+            });
+
+            SearchResponse<Map> response = elasticsearchClient.search(request, Map.class);
+            // 分片失败或超时时返回的是部分结果，继续翻页会静默漏掉文档
+            if (Boolean.TRUE.equals(response.timedOut()) || response.shards().failed().intValue() > 0) {
+                throw new IllegalStateException(String.format("切片 %d 返回部分结果: timed_out=%s, 失败分片 %d/%d",
+                        sliceId, response.timedOut(), response.shards().failed().intValue(),
+                        response.shards().total().intValue()));
+            }
+            List<Hit<Map>> hits = response.hits().hits();
+            if (hits.isEmpty()) {
+                return;
+            }
+
+            List<T> batch = new ArrayList<>(hits.size());
+            for (Hit<Map> hit : hits) {
+                Map<String, Object> source = hit.source() != null ? hit.source() : Map.of();
+                Document document = Document.from(source);
+                document.setId(hit.id());
+                batch.add(elasticsearchOperations.getElasticsearchConverter().read(type, document));
+            }
+            queue.put(batch);
+
+            if (hits.size() < batchSize) {
+                return;
+            }
+            searchAfter = hits.get(hits.size() - 1).sort();
+            if (response.pitId() != null) {
+                currentPit = response.pitId();
+            }
+        }
+    }
+
+    private static <T> void drainUntilEnd(BlockingQueue<List<T>> queue, List<T> endOfStream) {
+        try {
+            while (queue.take() != endOfStream) {
+                // 丢弃
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String openPointInTime(String index) {
+        try {
+            return elasticsearchClient.openPointInTime(o -> o.index(index).keepAlive(k -> k.time(KEEP_ALIVE))).id();
+        } catch (IOException e) {
+            throw new IllegalStateException("无法打开 point-in-time: " + e.getMessage(), e);
+        }
+    }
+
+    private void closePointInTime(String pitId) {
+        try {
+            elasticsearchClient.closePointInTime(c -> c.id(pitId));
+        } catch (Exception e) {
+            // PIT 到期后会被 ES 自动回收
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.scholar.platform.service.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 不可变的合作者图（CSR 压缩邻接表）
+ * 作者 ID 映射为 0..n-1 的整数；节点 u 的邻居为 neighbors[offsets[u] .. offsets[u+1])，按邻居编号升序，
+ * weights 为对应的合作次数。无向图，每条边在两端各存一份；同一对作者的重复记录在构建时合并
+ */
+public final class CoauthorGraph {
+
+    private final String[] ids;
+    private final String[] names;
+    private final Map<String, Integer> indexById;
+    private final Map<String, int[]> indexByName;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final int[] weights;
+
+    private CoauthorGraph(String[] ids, String[] names, Map<String, Integer> indexById,
+            Map<String, int[]> indexByName, int[] offsets, int[] neighbors, int[] weights) {
+        this.ids = ids;
+        this.names = names;
+        this.indexById = indexById;
+        this.indexByName = indexByName;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.weights = weights;
+    }
+
+    public static CoauthorGraph empty() {
+        return new Builder().build();
+    }
+
+    public int nodeCount() {
+        return ids.length;
+    }
+
+    /** 无向边数 */
+    public int edgeCount() {
+        return neighbors.length / 2;
+    }
+
+    /** 作者 ID 对应的节点编号，不存在时返回 -1 */
+    public int indexOf(String authorId) {
+        Integer index = indexById.get(authorId);
+        return index == null ? -1 : index;
+    }
+
+    /** 姓名（忽略大小写）对应的全部节点编号 */
+    public int[] indexesOfName(String authorName) {
+        if (authorName == null) {
+            return new int[0];
+        }
+        int[] nodes = indexByName.get(normalizeName(authorName));
+        return nodes == null ? new int[0] : nodes;
+    }
+
+    public String id(int node) {
+        return ids[node];
+    }
+
+    public String name(int node) {
+        return names[node];
+    }
+
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int neighborStart(int node) {
+        return offsets[node];
+    }
+
+    public int neighborEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    public int neighborAt(int position) {
+        return neighbors[position];
+    }
+
+    public int weightAt(int position) {
+        return weights[position];
+    }
+
+    /** u 与 v 之间的合作次数，不相邻时为 0；邻居有序，二分查找 */
+    public int weight(int u, int v) {
+        int pos = Arrays.binarySearch(neighbors, offsets[u], offsets[u + 1], v);
+        return pos >= 0 ? weights[pos] : 0;
+    }
+
+    static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 边列表构建器：ID 驻留为整数，边暂存在原生数组中
+     */
+    public static final class Builder {
+        private final Map<String, Integer> indexById = new HashMap<>();
+        private String[] ids = new String[1024];
+        private String[] names = new String[1024];
+        private int nodeCount;
+        private int[] from = new int[4096];
+        private int[] to = new int[4096];
+        private int[] edgeWeights = new int[4096];
+        private int edgeCount;
+
+        public Builder addEdge(String id1, String name1, String id2, String name2, int weight) {
+            if (id1 == null || id2 == null || id1.equals(id2) || weight <= 0) {
+                return this;
+            }
+            int a = intern(id1, name1);
+            int b = intern(id2, name2);
+            if (edgeCount == from.length) {
+                int capacity = edgeCount * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            }
+            from[edgeCount] = a;
+            to[edgeCount] = b;
+            edgeWeights[edgeCount] = weight;
+            edgeCount++;
+            return this;
+        }
+
+        private int intern(String id, String name) {
+            Integer existing = indexById.get(id);
+            if (existing != null) {
+                if (names[existing] == null && name != null) {
+                    names[existing] = name;
+                }
+                return existing;
+            }
+            if (nodeCount == ids.length) {
+                ids = Arrays.copyOf(ids, nodeCount * 2);
+                names = Arrays.copyOf(names, nodeCount * 2);
+            }
+            ids[nodeCount] = id;
+            names[nodeCount] = name;
+            indexById.put(id, nodeCount);
+            return nodeCount++;
+        }
+
+        public CoauthorGraph build() {
+            int n = nodeCount;
+            // 1. 统计度数（每条边两端各一份）
+            int[] degree = new int[n + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                degree[from[e]]++;
+                degree[to[e]]++;
+            }
+            int[] start = new int[n + 1];
+            for (int u = 0; u < n; u++) {
+                start[u + 1] = start[u] + degree[u];
+            }
+
+            // 2. 按 (邻居, 权重) 打包成 long 填入各节点的段，段内排序后邻居即有序
+            long[] packed = new long[start[n]];
+            int[] cursor = Arrays.copyOf(start, n + 1);
+            for (int e = 0; e < edgeCount; e++) {
+                packed[cursor[from[e]]++] = ((long) to[e] << 32) | edgeWeights[e];
+                packed[cursor[to[e]]++] = ((long) from[e] << 32) | edgeWeights[e];
+            }
+
+            // 3. 段内排序并合并同一邻居的重复边
+            int[] offsets = new int[n + 1];
+            int[] neighbors = new int[packed.length];
+            int[] weights = new int[packed.length];
+            int size = 0;
+            for (int u = 0; u < n; u++) {
+                offsets[u] = size;
+                Arrays.sort(packed, start[u], start[u + 1]);
+                for (int p = start[u]; p < start[u + 1]; p++) {
+                    int v = (int) (packed[p] >>> 32);
+                    int w = (int) packed[p];
+                    if (size > offsets[u] && neighbors[size - 1] == v) {
+                        weights[size - 1] = (int) Math.min(Integer.MAX_VALUE, (long) weights[size - 1] + w);
+                    } else {
+                        neighbors[size] = v;
+                        weights[size] = w;
+                        size++;
+                    }
+                }
+            }
+            offsets[n] = size;
+
+            Map<String, int[]> byName = new HashMap<>();
+            for (int u = 0; u < n; u++) {
+                if (names[u] != null) {
+                    byName.merge(normalizeName(names[u]), new int[]{u}, (a, b) -> {
+                        int[] merged = Arrays.copyOf(a, a.length + 1);
+                        merged[a.length] = b[0];
+                        return merged;
+                    });
+                }
+            }
+
+            return new CoauthorGraph(Arrays.copyOf(ids, n), Arrays.copyOf(names, n), Map.copyOf(indexById),
+                    Map.copyOf(byName), offsets, Arrays.copyOf(neighbors, size), Arrays.copyOf(weights, size));
+        }
+    }
+}
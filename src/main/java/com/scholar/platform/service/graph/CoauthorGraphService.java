@@ -0,0 +1,329 @@
+package com.scholar.platform.service.graph;
+
+import com.scholar.platform.dto.AuthorRelationDTO;
+import com.scholar.platform.dto.CoauthorDTO;
+import com.scholar.platform.dto.CollaborationNetworkDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 合作者关系的内存图
+ * 启动时从 author_relation 流式读取构建 CoauthorGraph 快照，查询只读当前快照、不访问数据库；
+ * 合作关系任务写库后调用 reloadAndBroadcast，本节点与其他节点（Redis pub/sub 通知）都从数据库重建快照。
+ * 快照只有数据库重载一条写入路径，不会出现增量合并与重载交错导致的丢失或重复计数；
+ * 重载期间到达的请求合并为结束后的再一次重载。合作关系任务每天运行一次，每次任务各节点各做一次 O(E) 重建
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CoauthorGraphService implements MessageListener {
+
+    private static final String RELOAD_CHANNEL = "coauthor-graph:reload";
+    private static final String LOAD_SQL =
+            "SELECT author1_id, author1_name, author2_id, author2_name, `count` FROM author_relation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /** 二度合作者计算时每个一度合作者最多展开的邻居数（按合作次数取前 N），限制高产作者的扇出 */
+    @Value("${coauthor-graph.two-hop-fan-out:200}")
+    private int twoHopFanOut;
+
+    /** 最短合作路径：最大跳数、每个节点最多展开的邻居数、单次查询的时间预算 */
+    @Value("${coauthor-graph.path.max-hops:6}")
+    private int pathMaxHops;
+
+    @Value("${coauthor-graph.path.fan-out:1000}")
+    private int pathFanOut;
+
+    @Value("${coauthor-graph.path.budget-ms:200}")
+    private long pathBudgetMs;
+
+    /** 自我网络：节点总数上限与单次查询的时间预算 */
+    @Value("${coauthor-graph.ego.max-nodes:500}")
+    private int egoMaxNodes;
+
+    @Value("${coauthor-graph.ego.budget-ms:200}")
+    private long egoBudgetMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile CoauthorGraph graph = CoauthorGraph.empty();
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+    private volatile long loadMillis;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RELOAD_CHANNEL));
+        reload();
+    }
+
+    /**
+     * 从数据库全量重载；也定时执行，兜底错过的通知
+     * 已有重载在进行时只登记请求并立即返回，进行中的重载结束后会再重载一次，
+     * 保证请求之前提交的数据一定出现在之后的某个快照里
+     */
+    @Scheduled(fixedDelayString = "${coauthor-graph.reload-interval-ms:21600000}",
+            initialDelayString = "${coauthor-graph.reload-interval-ms:21600000}")
+    public void reload() {
+        reloadRequested.set(true);
+        while (reloadRequested.get() && reloading.compareAndSet(false, true)) {
+            try {
+                reloadRequested.set(false);
+                loadFromDatabase();
+            } finally {
+                reloading.set(false);
+            }
+        }
+    }
+
+    private void loadFromDatabase() {
+        try {
+            long start = System.currentTimeMillis();
+            CoauthorGraph.Builder builder = new CoauthorGraph.Builder();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                builder.addEdge(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5));
+            });
+            graph = builder.build();
+            loaded = true;
+            loadedAt = System.currentTimeMillis();
+            loadMillis = loadedAt - start;
+            log.info("合作者图加载完成: {} 位作者, {} 条边, 耗时 {} ms",
+                    graph.nodeCount(), graph.edgeCount(), loadMillis);
+        } catch (Exception e) {
+            log.warn("加载合作者图失败, 错误: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * author_relation 更新（整表替换或增量累加）提交后调用：本节点重载并通知其他节点重载
+     */
+    public void reloadAndBroadcast() {
+        reload();
+        stringRedisTemplate.convertAndSend(RELOAD_CHANNEL, nodeId);
+    }
+
+    /**
+     * 其他节点更新了 author_relation，从数据库重载；忽略本节点自己发出的通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            return;
+        }
+        reload();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 与指定姓名（忽略大小写）的作者有合作关系的全部记录，author1 为被查询的作者
+     */
+    public List<AuthorRelationDTO> relationsByName(String authorName) {
+        CoauthorGraph g = graph;
+        List<AuthorRelationDTO> result = new ArrayList<>();
+        for (int u : g.indexesOfName(authorName)) {
+            for (int p = g.neighborStart(u); p < g.neighborEnd(u); p++) {
+                int v = g.neighborAt(p);
+                result.add(new AuthorRelationDTO(g.id(u), g.name(u), g.id(v), g.name(v), g.weightAt(p)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 一度合作者，按合作次数降序
+     */
+    public List<CoauthorDTO> neighbours(String authorId) {
+        return topCollaborators(authorId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 合作次数最多的 k 位合作者
+     */
+    public List<CoauthorDTO> topCollaborators(String authorId, int k) {
+        CoauthorGraph g = graph;
+        int u = g.indexOf(authorId);
+        if (u < 0 || k <= 0) {
+            return List.of();
+        }
+        int[] top = topPositions(g, u, k);
+        List<CoauthorDTO> result = new ArrayList<>(top.length);
+        for (int p : top) {
+            int v = g.neighborAt(p);
+            result.add(new CoauthorDTO(g.id(v), g.name(v), g.weightAt(p), null));
+        }
+        return result;
+    }
+
+    /**
+     * 二度合作者（合作者的合作者，排除本人和一度合作者）
+     * 按共同合作者数降序、路径权重之和降序排列；每个一度合作者只展开其合作次数最多的 twoHopFanOut 位邻居
+     */
+    public List<CoauthorDTO> secondDegree(String authorId, int limit) {
+        CoauthorGraph g = graph;
+        int u = g.indexOf(authorId);
+        if (u < 0 || limit <= 0) {
+            return List.of();
+        }
+
+        // 候选 -> {共同合作者数, 路径权重和}
+        Map<Integer, int[]> candidates = new HashMap<>();
+        for (int p = g.neighborStart(u); p < g.neighborEnd(u); p++) {
+            int v = g.neighborAt(p);
+            int w1 = g.weightAt(p);
+            if (g.degree(v) <= twoHopFanOut) {
+                for (int q = g.neighborStart(v); q < g.neighborEnd(v); q++) {
+                    accumulate(g, u, w1, q, candidates);
+                }
+            } else {
+                for (int q : topPositions(g, v, twoHopFanOut)) {
+                    accumulate(g, u, w1, q, candidates);
+                }
+            }
+        }
+
+        PriorityQueue<Map.Entry<Integer, int[]>> heap = new PriorityQueue<>(
+                (a, b) -> compareScore(a.getValue(), b.getValue()));
+        for (Map.Entry<Integer, int[]> entry : candidates.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<CoauthorDTO> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Map.Entry<Integer, int[]> entry = heap.poll();
+            int x = entry.getKey();
+            result.add(new CoauthorDTO(g.id(x), g.name(x), entry.getValue()[1], entry.getValue()[0]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * 两位作者之间的最短合作路径（双向 BFS，按跳数）；任一作者不在图中或在限制内未找到时 nodes 为空
+     */
+    public CollaborationNetworkDTO shortestPath(String fromId, String toId) {
+        long start = System.nanoTime();
+        CoauthorGraph g = graph;
+        int source = g.indexOf(fromId);
+        int target = g.indexOf(toId);
+        CollaborationNetworkDTO dto = new CollaborationNetworkDTO();
+        dto.setNodes(new ArrayList<>());
+        dto.setEdges(new ArrayList<>());
+        if (source >= 0 && target >= 0) {
+            GraphTraversal.PathResult result = GraphTraversal.shortestPath(g, source, target, pathMaxHops,
+                    pathFanOut, start + TimeUnit.MILLISECONDS.toNanos(pathBudgetMs));
+            int[] path = result.path();
+            for (int i = 0; i < path.length; i++) {
+                dto.getNodes().add(new CollaborationNetworkDTO.Node(g.id(path[i]), g.name(path[i]), i));
+                if (i > 0) {
+                    dto.getEdges().add(new CollaborationNetworkDTO.Edge(g.id(path[i - 1]), g.id(path[i]),
+                            g.weight(path[i - 1], path[i])));
+                }
+            }
+            dto.setTruncated(result.truncated());
+        }
+        dto.setElapsedMicros((System.nanoTime() - start) / 1000);
+        return dto;
+    }
+
+    /**
+     * 以指定作者为中心的 k 跳合作网络；fanOut 依次为每一跳每个节点最多展开的邻居数
+     */
+    public CollaborationNetworkDTO egoNetwork(String authorId, int[] fanOut) {
+        long start = System.nanoTime();
+        CoauthorGraph g = graph;
+        int center = g.indexOf(authorId);
+        CollaborationNetworkDTO dto = new CollaborationNetworkDTO();
+        dto.setNodes(new ArrayList<>());
+        dto.setEdges(new ArrayList<>());
+        if (center >= 0) {
+            GraphTraversal.EgoResult result = GraphTraversal.egoNetwork(g, center, fanOut, egoMaxNodes,
+                    start + TimeUnit.MILLISECONDS.toNanos(egoBudgetMs));
+            result.nodes().forEach((u, hop) -> dto.getNodes().add(new CollaborationNetworkDTO.Node(g.id(u), g.name(u), hop)));
+            for (int[] edge : result.edges()) {
+                dto.getEdges().add(new CollaborationNetworkDTO.Edge(g.id(edge[0]), g.id(edge[1]), edge[2]));
+            }
+            dto.setTruncated(result.truncated());
+        }
+        dto.setElapsedMicros((System.nanoTime() - start) / 1000);
+        return dto;
+    }
+
+    private static void accumulate(CoauthorGraph g, int u, int w1, int q, Map<Integer, int[]> candidates) {
+        int x = g.neighborAt(q);
+        if (x == u || g.weight(u, x) > 0) {
+            return;
+        }
+        int[] score = candidates.computeIfAbsent(x, key -> new int[2]);
+        score[0]++;
+        score[1] += Math.min(w1, g.weightAt(q));
+    }
+
+    private static int compareScore(int[] a, int[] b) {
+        int c = Integer.compare(a[0], b[0]);
+        return c != 0 ? c : Integer.compare(a[1], b[1]);
+    }
+
+    /**
+     * 节点 u 的邻接段中合作次数最大的 k 个位置，按权重降序；度数不超过 k 时直接排序整段
+     */
+    static int[] topPositions(CoauthorGraph g, int u, int k) {
+        int start = g.neighborStart(u);
+        int degree = g.degree(u);
+        // 权重在高 32 位、位置取反在低位，降序排序后同权重按邻居编号升序
+        long[] packed = new long[degree];
+        for (int i = 0; i < degree; i++) {
+            packed[i] = ((long) g.weightAt(start + i) << 32) | (0xFFFFFFFFL & ~(start + i));
+        }
+        Arrays.sort(packed);
+        int n = Math.min(k, degree);
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            positions[i] = ~(int) packed[degree - 1 - i];
+        }
+        return positions;
+    }
+
+    public Map<String, Object> stats() {
+        CoauthorGraph g = graph;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", loaded);
+        stats.put("nodes", g.nodeCount());
+        stats.put("edges", g.edgeCount());
+        stats.put("loadedAt", loadedAt);
+        stats.put("loadMillis", loadMillis);
+        return stats;
+    }
+}
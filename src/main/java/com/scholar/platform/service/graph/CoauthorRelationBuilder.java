@@ -0,0 +1,422 @@
+package com.scholar.platform.service.graph;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.aggregations.MaxAggregate;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.json.JsonData;
+import com.scholar.platform.dto.CoauthorBuildStatus;
+import com.scholar.platform.entity.Achievement;
+import com.scholar.platform.entity.JobWatermark;
+import com.scholar.platform.repository.JobWatermarkRepository;
+import com.scholar.platform.service.export.ExportStats;
+import com.scholar.platform.service.export.IndexExporter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 从 openalex_works 的作者列表生成 author_relation
+ * 通过 IndexExporter 以 PIT + slice 并行流式读取论文，同一篇论文的作者两两计一次合作，
+ * 计数在 PairCountAggregator 中聚合（超出内存上限时溢写到磁盘再归并）。
+ * 全量运行写入影子表后原子替换 author_relation；增量运行读取入库时间水位（向前重叠 watermark-overlap-ms）之后的论文，
+ * 计数先写入暂存表，再在一个事务中累加到线上表、登记已计数论文、推进水位，失败重跑不会重复累加。
+ * 已计数的论文 ID 记录在 coauthor_counted_work 中，重叠区间内或重新入库的论文不会被再次计数。
+ * 作者对按 ID 字典序规范化为 author1_id < author2_id。
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CoauthorRelationBuilder {
+
+    private static final String WORKS_INDEX = "openalex_works";
+    private static final String TABLE = "author_relation";
+    private static final String STAGE_TABLE = TABLE + "_new";
+    private static final String LEDGER_TABLE = "coauthor_counted_work";
+    private static final String LEDGER_STAGE_TABLE = LEDGER_TABLE + "_new";
+    private static final String JOB_NAME = "coauthor-relation";
+    private static final int WRITE_BATCH_SIZE = 1000;
+    private static final List<String> SOURCE_FIELDS =
+            List.of("author_ids", "authorships.author.id", "authorships.author.display_name");
+
+    private static final String INSERT_SQL = "INSERT INTO `%s` (author1_id, author2_id, author1_name, author2_name, `count`) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String MERGE_SQL = "INSERT INTO author_relation (author1_id, author2_id, author1_name, author2_name, `count`) " +
+            "SELECT * FROM (SELECT author1_id, author2_id, author1_name, author2_name, `count` FROM author_relation_new) AS new " +
+            "ON DUPLICATE KEY UPDATE `count` = author_relation.`count` + new.`count`, " +
+            "author1_name = COALESCE(new.author1_name, author_relation.author1_name), " +
+            "author2_name = COALESCE(new.author2_name, author_relation.author2_name)";
+    private static final String LEDGER_DDL = "CREATE TABLE IF NOT EXISTS `" + LEDGER_TABLE + "` (" +
+            "`work_id` varchar(100) NOT NULL, PRIMARY KEY (`work_id`)) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+    private static final String LEDGER_STAGE_INSERT_SQL = "INSERT IGNORE INTO `" + LEDGER_STAGE_TABLE + "` (work_id) VALUES (?)";
+    private static final String LEDGER_MERGE_SQL = "INSERT IGNORE INTO `" + LEDGER_TABLE + "` (work_id) " +
+            "SELECT work_id FROM `" + LEDGER_STAGE_TABLE + "`";
+
+    private final IndexExporter indexExporter;
+    private final ElasticsearchClient elasticsearchClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobWatermarkRepository jobWatermarkRepository;
+    private final CoauthorGraphService coauthorGraphService;
+    private final ThreadPoolTaskExecutor coauthorJobExecutor;
+
+    /** 增量水位字段（论文入库时间，epoch 毫秒） */
+    @Value("${coauthor-job.watermark-field:indexed_at}")
+    private String watermarkField;
+
+    /** 增量读取时水位向前重叠的时长，覆盖抓取程序批量写入和索引刷新的延迟 */
+    @Value("${coauthor-job.watermark-overlap-ms:3600000}")
+    private long watermarkOverlapMs;
+
+    /** 作者数超过此值的论文（大型合作项目）不计入合作关系，避免单篇论文产生数十万个作者对 */
+    @Value("${coauthor-job.max-authors-per-work:100}")
+    private int maxAuthorsPerWork;
+
+    /** 内存中最多保留的作者对数，超出后溢写到磁盘 */
+    @Value("${coauthor-job.max-pairs-in-memory:4000000}")
+    private int maxPairsInMemory;
+
+    /** 溢写目录，为空时使用系统临时目录 */
+    @Value("${coauthor-job.spill-dir:}")
+    private String spillDir;
+
+    private final AtomicReference<CoauthorBuildStatus> running = new AtomicReference<>();
+    private volatile CoauthorBuildStatus lastRun;
+
+    @Scheduled(cron = "${coauthor-job.incremental-cron:0 30 3 * * *}")
+    public void scheduledIncremental() {
+        submit(true);
+    }
+
+    /**
+     * 提交一次生成任务，立即返回任务状态；已有任务在运行时直接返回该任务
+     * 增量模式下没有水位记录（从未运行过）时按全量处理
+     */
+    public CoauthorBuildStatus submit(boolean incremental) {
+        CoauthorBuildStatus status = new CoauthorBuildStatus();
+        status.setRunId(UUID.randomUUID().toString());
+        status.setMode(incremental ? "INCREMENTAL" : "FULL");
+        status.setStatus("RUNNING");
+        status.setStartedAt(LocalDateTime.now());
+        if (!running.compareAndSet(null, status)) {
+            CoauthorBuildStatus current = running.get();
+            return current != null ? current : submit(incremental);
+        }
+        coauthorJobExecutor.execute(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                run(status);
+                status.setStatus("COMPLETED");
+            } catch (Exception e) {
+                status.setStatus("FAILED");
+                status.setError(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+                log.error("合作关系生成失败, runId: {}, 错误: {}", status.getRunId(), e.getMessage(), e);
+            } finally {
+                status.setFinishedAt(LocalDateTime.now());
+                status.setElapsedMillis(System.currentTimeMillis() - start);
+                lastRun = status;
+                running.set(null);
+            }
+        });
+        return status;
+    }
+
+    /**
+     * 正在运行的任务，没有时返回最近一次结束的任务
+     */
+    public CoauthorBuildStatus currentStatus() {
+        CoauthorBuildStatus current = running.get();
+        return current != null ? current : lastRun;
+    }
+
+    private void run(CoauthorBuildStatus status) throws Exception {
+        Long previous = "INCREMENTAL".equals(status.getMode()) ? loadWatermark() : null;
+        if (previous == null) {
+            status.setMode("FULL");
+        }
+        Long upper = maxWatermarkValue();
+        log.info("开始生成合作关系, runId: {}, 模式: {}, 水位: {} -> {}", status.getRunId(), status.getMode(),
+                previous, upper);
+        if (previous != null && (upper == null || upper <= previous)) {
+            log.info("水位之后没有新论文，跳过");
+            return;
+        }
+
+        Path dir = spillDir == null || spillDir.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir")) : Files.createDirectories(Path.of(spillDir));
+        prepareStageTables();
+        boolean incremental = previous != null;
+        AuthorTable authors = new AuthorTable();
+        try (PairCountAggregator aggregator = new PairCountAggregator(maxPairsInMemory, dir)) {
+            long[] skipped = new long[2];
+            Long from = incremental ? previous - watermarkOverlapMs : null;
+            ExportStats exported = indexExporter.export(WORKS_INDEX, Achievement.class,
+                    worksQuery(from, upper), SOURCE_FIELDS, batch -> {
+                        synchronized (aggregator) {
+                            Set<String> counted = incremental ? countedWorks(batch) : Collections.emptySet();
+                            List<Object[]> newWorks = new ArrayList<>(batch.size());
+                            for (Achievement work : batch) {
+                                if (counted.contains(work.getId())) {
+                                    skipped[1]++;
+                                    continue;
+                                }
+                                newWorks.add(new Object[]{work.getId()});
+                                if (!countWork(work, authors, aggregator)) {
+                                    skipped[0]++;
+                                }
+                            }
+                            jdbcTemplate.batchUpdate(LEDGER_STAGE_INSERT_SQL, newWorks);
+                        }
+                    });
+            status.setWorksScanned(exported.documents());
+            status.setWorksSkipped(skipped[0]);
+            status.setWorksAlreadyCounted(skipped[1]);
+            status.setSpillRuns(aggregator.spillRuns());
+
+            String sql = String.format(INSERT_SQL, STAGE_TABLE);
+            status.setPairs(writePairs(aggregator, authors, batch -> jdbcTemplate.batchUpdate(sql, batch)));
+        }
+
+        JobWatermark watermark = upper == null ? null
+                : new JobWatermark(watermarkName(), String.valueOf(upper), LocalDateTime.now());
+        if (incremental) {
+            mergeIncrements(watermark);
+        } else {
+            replaceTables();
+            if (watermark != null) {
+                jobWatermarkRepository.save(watermark);
+            }
+        }
+        status.setWatermark(upper == null ? null : String.valueOf(upper));
+        coauthorGraphService.reloadAndBroadcast();
+        log.info("合作关系生成完成, runId: {}, 论文 {} 篇, 跳过 {} 篇, 已计数 {} 篇, 作者对 {} 个, 溢写段 {} 个",
+                status.getRunId(), status.getWorksScanned(), status.getWorksSkipped(), status.getWorksAlreadyCounted(),
+                status.getPairs(), status.getSpillRuns());
+    }
+
+    /**
+     * 重建暂存表：作者对计数写入 author_relation_new，本次计数的论文 ID 写入 coauthor_counted_work_new
+     */
+    private void prepareStageTables() {
+        jdbcTemplate.execute(LEDGER_DDL);
+        for (String[] tables : new String[][]{{STAGE_TABLE, TABLE}, {LEDGER_STAGE_TABLE, LEDGER_TABLE}}) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS `" + tables[0] + "`");
+            jdbcTemplate.execute("CREATE TABLE `" + tables[0] + "` LIKE `" + tables[1] + "`");
+        }
+    }
+
+    /**
+     * 本批论文中已经计数过的论文 ID
+     */
+    private Set<String> countedWorks(List<Achievement> batch) {
+        List<String> ids = new ArrayList<>(batch.size());
+        for (Achievement work : batch) {
+            ids.add(work.getId());
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT work_id FROM `" + LEDGER_TABLE + "` WHERE work_id IN (" + placeholders + ")",
+                String.class, ids.toArray()));
+    }
+
+    /**
+     * 一篇论文的作者两两计数；作者去重，优先取 authorships 中带姓名的作者，没有时退回 author_ids
+     * @return 作者数超过上限而被跳过时返回 false
+     */
+    private boolean countWork(Achievement work, AuthorTable authors, PairCountAggregator aggregator) throws IOException {
+        Map<String, String> ids = new LinkedHashMap<>();
+        if (work.getAuthorships() != null) {
+            for (Achievement.Authorship authorship : work.getAuthorships()) {
+                if (authorship.getAuthor() != null && authorship.getAuthor().getId() != null) {
+                    ids.putIfAbsent(authorship.getAuthor().getId(), authorship.getAuthor().getDisplayName());
+                }
+            }
+        }
+        if (ids.isEmpty() && work.getAuthorIds() != null) {
+            for (String id : work.getAuthorIds()) {
+                if (id != null) {
+                    ids.putIfAbsent(id, null);
+                }
+            }
+        }
+        if (ids.size() > maxAuthorsPerWork) {
+            return false;
+        }
+        int[] interned = new int[ids.size()];
+        int n = 0;
+        for (Map.Entry<String, String> entry : ids.entrySet()) {
+            interned[n++] = authors.intern(entry.getKey(), entry.getValue());
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                aggregator.add(interned[i], interned[j], 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 全量：暂存表与线上表（合作关系和已计数论文）在一条 RENAME 中原子替换
+     */
+    private void replaceTables() {
+        String retiredTable = TABLE + "_old";
+        String retiredLedger = LEDGER_TABLE + "_old";
+        jdbcTemplate.execute("DROP TABLE IF EXISTS `" + retiredTable + "`");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS `" + retiredLedger + "`");
+        jdbcTemplate.execute(String.format("RENAME TABLE `%s` TO `%s`, `%s` TO `%s`, `%s` TO `%s`, `%s` TO `%s`",
+                TABLE, retiredTable, STAGE_TABLE, TABLE, LEDGER_TABLE, retiredLedger, LEDGER_STAGE_TABLE, LEDGER_TABLE));
+        jdbcTemplate.execute("DROP TABLE `" + retiredTable + "`");
+        jdbcTemplate.execute("DROP TABLE `" + retiredLedger + "`");
+    }
+
+    /**
+     * 增量：在一个事务中把暂存的计数累加到线上表、登记已计数论文并推进水位，
+     * 任一步失败整体回滚，线上表保持不变，重跑时这些论文仍按未计数处理
+     */
+    private void mergeIncrements(JobWatermark watermark) {
+        transactionTemplate.executeWithoutResult(s -> {
+            jdbcTemplate.update(MERGE_SQL);
+            jdbcTemplate.update(LEDGER_MERGE_SQL);
+            if (watermark != null) {
+                jobWatermarkRepository.save(watermark);
+            }
+        });
+        jdbcTemplate.execute("DROP TABLE IF EXISTS `" + STAGE_TABLE + "`");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS `" + LEDGER_STAGE_TABLE + "`");
+    }
+
+    private long writePairs(PairCountAggregator aggregator, AuthorTable authors,
+            Consumer<List<Object[]>> writer) throws Exception {
+        List<Object[]> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        long[] written = new long[1];
+        aggregator.forEachSorted((a, b, count) -> {
+            String id1 = authors.id(a);
+            String id2 = authors.id(b);
+            // 规范化为 author1_id < author2_id
+            if (id1.compareTo(id2) > 0) {
+                int tmp = a;
+                a = b;
+                b = tmp;
+            }
+            batch.add(new Object[]{authors.id(a), authors.id(b), authors.name(a), authors.name(b), count});
+            if (batch.size() >= WRITE_BATCH_SIZE) {
+                writer.accept(batch);
+                written[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            writer.accept(batch);
+            written[0] += batch.size();
+        }
+        return written[0];
+    }
+
+    /**
+     * 全量：水位之前的论文加上没有水位字段的论文；增量：(from, upper] 之间入库的论文
+     * 水位是 epoch 毫秒数值，date 类型（默认格式含 epoch_millis）和 long 类型的字段都能直接比较
+     */
+    private Query worksQuery(Long from, Long upper) {
+        if (upper == null) {
+            return null;
+        }
+        Query upTo = Query.of(q -> q.range(r -> {
+            r.field(watermarkField).lte(JsonData.of(upper));
+            if (from != null) {
+                r.gt(JsonData.of(from));
+            }
+            return r;
+        }));
+        if (from != null) {
+            return upTo;
+        }
+        return Query.of(q -> q.bool(b -> b
+                .should(upTo)
+                .should(s -> s.bool(nb -> nb.mustNot(mn -> mn.exists(e -> e.field(watermarkField)))))
+                .minimumShouldMatch("1")));
+    }
+
+    /**
+     * 当前索引中水位字段的最大值（epoch 毫秒），字段不存在或索引为空时返回 null
+     */
+    private Long maxWatermarkValue() throws IOException {
+        SearchResponse<Void> response = elasticsearchClient.search(s -> s
+                .index(WORKS_INDEX)
+                .size(0)
+                .aggregations("max_watermark", a -> a.max(m -> m.field(watermarkField))), Void.class);
+        MaxAggregate max = response.aggregations().get("max_watermark").max();
+        double value = max.value();
+        if (max.valueAsString() == null && (Double.isNaN(value) || Double.isInfinite(value) || value == 0)) {
+            return null;
+        }
+        return (long) value;
+    }
+
+    /**
+     * 水位按字段分别记录，更换水位字段后没有对应记录，先做一次全量
+     */
+    private String watermarkName() {
+        return JOB_NAME + ":" + watermarkField;
+    }
+
+    private Long loadWatermark() {
+        return jobWatermarkRepository.findById(watermarkName())
+                .map(w -> Long.valueOf(w.getWatermark()))
+                .orElse(null);
+    }
+
+    /**
+     * 作者 ID 与整数编号的双向映射，姓名取第一次出现的非空值
+     */
+    private static final class AuthorTable {
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+
+        int intern(String id, String name) {
+            Integer existing = index.get(id);
+            if (existing != null) {
+                if (names.get(existing) == null && name != null) {
+                    names.set(existing, name);
+                }
+                return existing;
+            }
+            index.put(id, ids.size());
+            ids.add(id);
+            names.add(name);
+            return ids.size() - 1;
+        }
+
+        String id(int i) {
+            return ids.get(i);
+        }
+
+        String name(int i) {
+            return names.get(i);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.scholar.platform.service.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 合作者图上的遍历：双向 BFS 最短路径与 k 跳自我网络
+ * 所有遍历都受每个节点的扇出上限和截止时间约束，超出时返回已得到的部分结果并标记 truncated
+ */
+final class GraphTraversal {
+
+    /** 每展开多少个节点检查一次时间预算 */
+    private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+    private GraphTraversal() {
+    }
+
+    /**
+     * 最短路径结果：path 为从起点到终点的节点编号序列，未找到时为空
+     */
+    record PathResult(int[] path, boolean truncated) {
+    }
+
+    /**
+     * 子网络结果：nodes 为节点编号到跳数的映射（按发现顺序），edges 为子网络内部的边 {u, v, 合作次数}（u < v）
+     */
+    record EgoResult(Map<Integer, Integer> nodes, List<int[]> edges, boolean truncated) {
+    }
+
+    /**
+     * 双向 BFS：每轮从较小的一侧前沿扩展一层，两侧相遇即得到最短路径（按跳数，不考虑权重）
+     * fanOut 限制每个节点展开的邻居数（取合作次数最多者），可能因此错过更短的路径，此时 truncated 为 true
+     */
+    static PathResult shortestPath(CoauthorGraph g, int source, int target, int maxHops, int fanOut, long deadlineNanos) {
+        if (source == target) {
+            return new PathResult(new int[]{source}, false);
+        }
+        Map<Integer, Integer> forwardParent = new HashMap<>();
+        Map<Integer, Integer> backwardParent = new HashMap<>();
+        forwardParent.put(source, -1);
+        backwardParent.put(target, -1);
+        List<Integer> forwardFrontier = new ArrayList<>(List.of(source));
+        List<Integer> backwardFrontier = new ArrayList<>(List.of(target));
+        boolean truncated = false;
+        int expanded = 0;
+
+        for (int hops = 0; hops < maxHops; hops++) {
+            if (forwardFrontier.isEmpty() || backwardFrontier.isEmpty()) {
+                return new PathResult(new int[0], truncated);
+            }
+            boolean forward = frontierCost(g, forwardFrontier) <= frontierCost(g, backwardFrontier);
+            List<Integer> frontier = forward ? forwardFrontier : backwardFrontier;
+            Map<Integer, Integer> visited = forward ? forwardParent : backwardParent;
+            Map<Integer, Integer> other = forward ? backwardParent : forwardParent;
+
+            List<Integer> next = new ArrayList<>();
+            for (int u : frontier) {
+                if (++expanded % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+                    return new PathResult(new int[0], true);
+                }
+                if (g.degree(u) > fanOut) {
+                    truncated = true;
+                }
+                for (int p : CoauthorGraphService.topPositions(g, u, fanOut)) {
+                    int v = g.neighborAt(p);
+                    if (visited.containsKey(v)) {
+                        continue;
+                    }
+                    visited.put(v, u);
+                    if (other.containsKey(v)) {
+                        return new PathResult(joinPath(v, forwardParent, backwardParent), truncated);
+                    }
+                    next.add(v);
+                }
+            }
+            if (forward) {
+                forwardFrontier = next;
+            } else {
+                backwardFrontier = next;
+            }
+        }
+        return new PathResult(new int[0], truncated);
+    }
+
+    private static long frontierCost(CoauthorGraph g, List<Integer> frontier) {
+        long cost = 0;
+        for (int u : frontier) {
+            cost += g.degree(u);
+        }
+        return cost;
+    }
+
+    private static int[] joinPath(int meet, Map<Integer, Integer> forwardParent, Map<Integer, Integer> backwardParent) {
+        List<Integer> path = new ArrayList<>();
+        for (int u = meet; u != -1; u = forwardParent.get(u)) {
+            path.add(0, u);
+        }
+        for (int u = backwardParent.get(meet); u != -1; u = backwardParent.get(u)) {
+            path.add(u);
+        }
+        return path.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * k 跳自我网络：逐层 BFS，第 h 层每个节点最多展开 fanOut[h] 位合作次数最多的邻居，节点总数不超过 maxNodes；
+     * 最后收集子网络内部的全部边
+     */
+    static EgoResult egoNetwork(CoauthorGraph g, int center, int[] fanOut, int maxNodes, long deadlineNanos) {
+        Map<Integer, Integer> nodes = new LinkedHashMap<>();
+        nodes.put(center, 0);
+        List<Integer> frontier = List.of(center);
+        boolean truncated = false;
+        int expanded = 0;
+
+        levels:
+        for (int hop = 0; hop < fanOut.length; hop++) {
+            List<Integer> next = new ArrayList<>();
+            for (int u : frontier) {
+                if (++expanded % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+                    truncated = true;
+                    break levels;
+                }
+                if (g.degree(u) > fanOut[hop]) {
+                    truncated = true;
+                }
+                for (int p : CoauthorGraphService.topPositions(g, u, fanOut[hop])) {
+                    int v = g.neighborAt(p);
+                    if (nodes.containsKey(v)) {
+                        continue;
+                    }
+                    if (nodes.size() >= maxNodes) {
+                        truncated = true;
+                        break levels;
+                    }
+                    nodes.put(v, hop + 1);
+                    next.add(v);
+                }
+            }
+            frontier = next;
+        }
+
+        List<int[]> edges = new ArrayList<>();
+        for (int u : nodes.keySet()) {
+            if (System.nanoTime() > deadlineNanos) {
+                truncated = true;
+                break;
+            }
+            for (int p = g.neighborStart(u); p < g.neighborEnd(u); p++) {
+                int v = g.neighborAt(p);
+                if (u < v && nodes.containsKey(v)) {
+                    edges.add(new int[]{u, v, g.weightAt(p)});
+                }
+            }
+        }
+        return new EgoResult(nodes, edges, truncated);
+    }
+}
@@ -0,0 +1,233 @@
+package com.scholar.platform.service.graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 内存有界的作者对计数器
+ * 作者对 (a, b) 以 a < b 的整数编号打包为 long 键，计数保存在开放寻址的原生数组哈希表中；
+ * 表中条目达到上限时按键排序写成一个有序段文件并清空，最后把所有段与内存剩余部分做 k 路归并，相同键的计数相加
+ */
+final class PairCountAggregator implements Closeable {
+
+    /** 归并输出的回调，a < b */
+    @FunctionalInterface
+    interface PairVisitor {
+        void accept(int a, int b, int count) throws Exception;
+    }
+
+    private static final long EMPTY = 0L;
+
+    private final int maxEntries;
+    private final Path spillDir;
+    private final List<Path> runs = new ArrayList<>();
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    PairCountAggregator(int maxEntries, Path spillDir) {
+        this.maxEntries = Math.max(1024, maxEntries);
+        this.spillDir = spillDir;
+        // 负载因子不超过 0.5
+        int capacity = Integer.highestOneBit(this.maxEntries * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.counts = new int[capacity];
+    }
+
+    void add(int a, int b, int count) throws IOException {
+        if (a == b) {
+            return;
+        }
+        // b > a >= 0，键不会等于 EMPTY
+        long key = a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+        int mask = keys.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                counts[slot] += count;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        counts[slot] = count;
+        if (++size >= maxEntries) {
+            spill();
+        }
+    }
+
+    int spillRuns() {
+        return runs.size();
+    }
+
+    /**
+     * 按键升序输出所有作者对的合计计数
+     */
+    void forEachSorted(PairVisitor visitor) throws Exception {
+        List<Source> sources = new ArrayList<>();
+        try {
+            for (Path run : runs) {
+                sources.add(new RunSource(run));
+            }
+            sources.add(new MemorySource(sortedEntries()));
+
+            PriorityQueue<Source> heap = new PriorityQueue<>((x, y) -> Long.compare(x.key, y.key));
+            for (Source source : sources) {
+                if (source.advance()) {
+                    heap.add(source);
+                }
+            }
+            while (!heap.isEmpty()) {
+                long key = heap.peek().key;
+                long total = 0;
+                while (!heap.isEmpty() && heap.peek().key == key) {
+                    Source source = heap.poll();
+                    total += source.count;
+                    if (source.advance()) {
+                        heap.add(source);
+                    }
+                }
+                visitor.accept((int) (key >>> 32), (int) key, (int) Math.min(Integer.MAX_VALUE, total));
+            }
+        } finally {
+            for (Source source : sources) {
+                source.close();
+            }
+        }
+    }
+
+    private void spill() throws IOException {
+        long[][] entries = sortedEntries();
+        Path run = Files.createTempFile(spillDir, "coauthor-pairs-", ".run");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            long[] sortedKeys = entries[0];
+            long[] sortedCounts = entries[1];
+            for (int i = 0; i < sortedKeys.length; i++) {
+                out.writeLong(sortedKeys[i]);
+                out.writeInt((int) sortedCounts[i]);
+            }
+        }
+        runs.add(run);
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    /**
+     * 内存中的条目按键排序：先排序键，再逐个回表取计数
+     */
+    private long[][] sortedEntries() {
+        long[] sortedKeys = new long[size];
+        int n = 0;
+        for (long key : keys) {
+            if (key != EMPTY) {
+                sortedKeys[n++] = key;
+            }
+        }
+        Arrays.sort(sortedKeys);
+        long[] sortedCounts = new long[n];
+        int mask = keys.length - 1;
+        for (int i = 0; i < n; i++) {
+            int slot = (int) mix(sortedKeys[i]) & mask;
+            while (keys[slot] != sortedKeys[i]) {
+                slot = (slot + 1) & mask;
+            }
+            sortedCounts[i] = counts[slot];
+        }
+        return new long[][]{sortedKeys, sortedCounts};
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    @Override
+    public void close() {
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                // 临时文件，删除失败不影响结果
+            }
+        }
+        runs.clear();
+        keys = new long[0];
+        counts = new int[0];
+        size = 0;
+    }
+
+    private abstract static class Source implements Closeable {
+        long key;
+        long count;
+
+        abstract boolean advance() throws IOException;
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class MemorySource extends Source {
+        private final long[] sortedKeys;
+        private final long[] sortedCounts;
+        private int index = -1;
+
+        MemorySource(long[][] entries) {
+            this.sortedKeys = entries[0];
+            this.sortedCounts = entries[1];
+        }
+
+        @Override
+        boolean advance() {
+            if (++index >= sortedKeys.length) {
+                return false;
+            }
+            key = sortedKeys[index];
+            count = sortedCounts[index];
+            return true;
+        }
+    }
+
+    private static final class RunSource extends Source {
+        private final DataInputStream in;
+
+        RunSource(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            try {
+                key = in.readLong();
+                count = in.readInt();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // 忽略
+            }
+        }
+    }
+}
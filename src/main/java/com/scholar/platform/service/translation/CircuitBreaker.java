@@ -0,0 +1,58 @@
+package com.scholar.platform.service.translation;
+
+/**
+ * 简单的连续失败熔断器
+ * 连续失败达到阈值后打开，打开期间直接拒绝；冷却结束后放行一次试探调用，成功则关闭，失败则重新打开
+ */
+public class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (consecutiveFailures < failureThreshold) {
+            return true;
+        }
+        if (System.currentTimeMillis() < openUntil || trialInFlight) {
+            return false;
+        }
+        trialInFlight = true;
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (consecutiveFailures >= failureThreshold) {
+            openUntil = System.currentTimeMillis() + openMillis;
+        }
+    }
+
+    /**
+     * 放弃已获取的调用许可（调用未实际发出），不影响失败计数
+     */
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    public synchronized String state() {
+        if (consecutiveFailures < failureThreshold) {
+            return "CLOSED";
+        }
+        return System.currentTimeMillis() < openUntil ? "OPEN" : "HALF_OPEN";
+    }
+}
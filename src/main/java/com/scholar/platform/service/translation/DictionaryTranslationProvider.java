@@ -0,0 +1,152 @@
+package com.scholar.platform.service.translation;
+
+import com.scholar.platform.entity.PaperKeyword;
+import com.scholar.platform.repository.PaperKeywordRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 本地术语词典翻译，不依赖外部服务
+ * 词条来自 classpath 下的中英术语表；英文写法以概念词表（paper_keywords 中记录的 concepts）为准，
+ * 保证译文与索引中的概念名一致。按最长匹配切分中文，只有全部中文都能被词条覆盖时才给出译文
+ */
+@Component
+@Order(1)
+@Slf4j
+@RequiredArgsConstructor
+public class DictionaryTranslationProvider implements TranslationProvider {
+
+    private static final String DICTIONARY_PATH = "translation/zh-en-terms.tsv";
+    /** 术语之间的连接词，翻译时作为分隔处理 */
+    private static final Set<Character> CONNECTORS = Set.of('的', '与', '和', '及', '或', '、');
+
+    private final PaperKeywordRepository paperKeywordRepository;
+
+    private volatile Dictionary dictionary = new Dictionary(Map.of(), 0);
+
+    private record Dictionary(Map<String, String> terms, int maxTermLength) {
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * 定时按最新的概念词表重建词典，新出现的概念写法会在下一轮生效
+     */
+    @Scheduled(initialDelayString = "${translation.dictionary.reload-interval-ms:3600000}",
+            fixedDelayString = "${translation.dictionary.reload-interval-ms:3600000}")
+    public void reload() {
+        Map<String, String> vocabulary = new HashMap<>();
+        try {
+            for (PaperKeyword pk : paperKeywordRepository.findAllKeywords()) {
+                if (pk.getKeyword() != null) {
+                    String keyword = pk.getKeyword().trim();
+                    vocabulary.put(keyword.toLowerCase(Locale.ROOT), keyword);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("加载概念词表失败，词典使用术语表原始写法: {}", e.getMessage());
+        }
+
+        Map<String, String> terms = new HashMap<>();
+        int maxLength = 0;
+        int matched = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(DICTIONARY_PATH).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\t");
+                if (parts.length < 2) {
+                    continue;
+                }
+                String zh = parts[0].trim();
+                String en = parts[1].trim();
+                String canonical = vocabulary.get(en.toLowerCase(Locale.ROOT));
+                if (canonical != null) {
+                    en = canonical;
+                    matched++;
+                }
+                terms.put(zh, en);
+                maxLength = Math.max(maxLength, zh.length());
+            }
+        } catch (Exception e) {
+            log.error("加载术语词典失败: {}", e.getMessage());
+            return;
+        }
+
+        dictionary = new Dictionary(Map.copyOf(terms), maxLength);
+        log.info("术语词典加载完成: {} 条, 其中 {} 条与概念词表一致", terms.size(), matched);
+    }
+
+    @Override
+    public String name() {
+        return "dictionary";
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    @Override
+    public String translate(String text) {
+        Dictionary dict = dictionary;
+        if (dict.terms().isEmpty()) {
+            return null;
+        }
+
+        StringBuilder result = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (!isChinese(c)) {
+                result.append(CONNECTORS.contains(c) ? ' ' : c);
+                i++;
+                continue;
+            }
+
+            String term = null;
+            int end = Math.min(text.length(), i + dict.maxTermLength());
+            for (; end > i; end--) {
+                term = dict.terms().get(text.substring(i, end));
+                if (term != null) {
+                    break;
+                }
+            }
+            if (term != null) {
+                result.append(' ').append(term).append(' ');
+                i = end;
+            } else if (CONNECTORS.contains(c)) {
+                result.append(' ');
+                i++;
+            } else {
+                // 存在词典未覆盖的中文，交给下一个提供方
+                return null;
+            }
+        }
+        String translated = result.toString().trim().replaceAll("\\s+", " ");
+        return translated.isEmpty() ? null : translated;
+    }
+
+    private static boolean isChinese(char c) {
+        return c >= '\u4e00' && c <= '\u9fa5';
+    }
+}
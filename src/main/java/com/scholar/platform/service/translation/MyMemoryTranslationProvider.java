@@ -0,0 +1,70 @@
+package com.scholar.platform.service.translation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * MyMemory 在线翻译接口
+ * 使用独立的 RestTemplate 和短超时，不与 AI 服务共用 120 秒读超时的实例
+ */
+@Component
+@Order(2)
+@Slf4j
+public class MyMemoryTranslationProvider implements TranslationProvider {
+
+    private static final String DEFAULT_API_URL = "https://api.mymemory.translated.net/get?q={text}&langpair=zh|en";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String apiUrl;
+
+    public MyMemoryTranslationProvider(RestTemplateBuilder builder, ObjectMapper objectMapper,
+            @Value("${translation.remote.url:}") String apiUrl,
+            @Value("${translation.remote.connect-timeout-ms:500}") long connectTimeoutMs,
+            @Value("${translation.remote.read-timeout-ms:1500}") long readTimeoutMs) {
+        this.restTemplate = builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+        this.objectMapper = objectMapper;
+        this.apiUrl = StringUtils.hasText(apiUrl) ? apiUrl : DEFAULT_API_URL;
+    }
+
+    @Override
+    public String name() {
+        return "mymemory";
+    }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    /**
+     * 调用失败时抛出异常，由 TranslationService 计入熔断器
+     */
+    @Override
+    public String translate(String text) {
+        String response = restTemplate.getForObject(apiUrl, String.class, text);
+        try {
+            JsonNode root = objectMapper.readTree(response);
+            String translatedText = root.path("responseData").path("translatedText").asText();
+            if (StringUtils.hasText(translatedText)) {
+                log.info("Translated '{}' to '{}'", text, translatedText);
+                return translatedText;
+            }
+            return null;
+        } catch (Exception e) {
+            throw new IllegalStateException("无法解析翻译接口响应: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.scholar.platform.service.translation;
+
+/**
+ * 中译英翻译提供方
+ * TranslationService 按 Spring @Order 顺序依次尝试，前一个返回 null 时交给下一个
+ */
+public interface TranslationProvider {
+
+    String name();
+
+    /**
+     * 是否需要远程调用；远程提供方在独立线程中执行，受延迟预算和熔断器约束
+     */
+    boolean isRemote();
+
+    /**
+     * 将中文文本翻译为英文，无法翻译时返回 null
+     */
+    String translate(String text);
+}
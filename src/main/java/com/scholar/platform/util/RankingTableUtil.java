@@ -0,0 +1,31 @@
+package com.scholar.platform.util;
+
+/**
+ * 排行榜表名：总榜为 scholar_ranking_all，各领域为 scholar_ranking_<规范化领域名>
+ */
+public final class RankingTableUtil {
+
+    public static final String GLOBAL_TABLE = "scholar_ranking_all";
+
+    private RankingTableUtil() {
+    }
+
+    /**
+     * 将领域名称转换为合法的 MySQL 表名
+     * 例如: "Computer Science" -> "scholar_ranking_computer_science"；null 或 "all" 返回总榜表
+     */
+    public static String tableName(String domain) {
+        if (domain == null || "all".equalsIgnoreCase(domain)) {
+            return GLOBAL_TABLE;
+        }
+        // 转小写，替换非字母数字字符为下划线
+        String safeName = domain.toLowerCase().replaceAll("[^a-z0-9]", "_");
+        // 去除重复下划线
+        safeName = safeName.replaceAll("_+", "_");
+        // 去除首尾下划线
+        if (safeName.startsWith("_")) safeName = safeName.substring(1);
+        if (safeName.endsWith("_")) safeName = safeName.substring(0, safeName.length() - 1);
+
+        return "scholar_ranking_" + safeName;
+    }
+}
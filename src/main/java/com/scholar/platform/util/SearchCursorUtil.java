@@ -0,0 +1,78 @@
+package com.scholar.platform.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 游标分页的游标编解码：PIT id + search_after 排序值 + 页码 + 检索条件指纹，序列化为 URL 安全的 base64 JSON
+ * 指纹绑定生成游标时的查询与排序，换了条件的请求不能沿用旧游标
+ */
+public final class SearchCursorUtil {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SearchCursorUtil() {
+    }
+
+    public record SearchCursor(String pitId, List<Object> searchAfter, int page, String fingerprint) {
+    }
+
+    /**
+     * 检索条件指纹：各条件按顺序拼接后取 SHA-256 的前 16 个十六进制字符
+     */
+    public static String fingerprint(Object... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (Object part : parts) {
+            // 长度前缀避免 ("ab", "c") 与 ("a", "bc") 拼接结果相同
+            String value = part == null ? "" : part.toString();
+            joined.append(part == null ? -1 : value.length()).append(':').append(value).append('|');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(joined.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    public static String encode(SearchCursor cursor) {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(cursor);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("游标编码失败", e);
+        }
+    }
+
+    /**
+     * 解码游标并校验它是否由同一组检索条件生成
+     */
+    public static SearchCursor decode(String cursor, String expectedFingerprint) {
+        SearchCursor decoded = decode(cursor);
+        if (!expectedFingerprint.equals(decoded.fingerprint())) {
+            throw new IllegalArgumentException("游标与当前检索条件不匹配，请重新检索");
+        }
+        return decoded;
+    }
+
+    public static SearchCursor decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            SearchCursor decoded = MAPPER.readValue(json, SearchCursor.class);
+            if (decoded.pitId() == null || decoded.searchAfter() == null) {
+                throw new IllegalArgumentException("无效的游标");
+            }
+            return decoded;
+        } catch (IllegalArgumentException | java.io.IOException e) {
+            throw new IllegalArgumentException("无效的游标");
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.scholar.platform.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 用本地 HttpServer 模拟 OpenAlex 接口和 ES _bulk，验证中断后从检查点续抓
+ * A1 的论文分三页（W1、W2 | W3 | 空），W1 与 A2 合作，W3 与 A3 合作
+ */
+class OpenAlexIngestorTest {
+
+    private static final String PREFIX = "https://openalex.org/";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * 作者 -> 游标 -> 该页论文 ID 与下一页游标
+     */
+    private final Map<String, Map<String, Page>> worksPages = Map.of(
+            "A1", Map.of(
+                    "*", new Page(List.of("W1", "W2"), "c2"),
+                    "c2", new Page(List.of("W3"), "c3"),
+                    "c3", new Page(List.of(), null)),
+            "A2", Map.of("*", new Page(List.of("W1"), null)),
+            "A3", Map.of("*", new Page(List.of("W3"), null)));
+    private final Map<String, List<String>> workAuthors = Map.of(
+            "W1", List.of("A1", "A2"),
+            "W2", List.of("A1"),
+            "W3", List.of("A1", "A3"));
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Set<String> indexedIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger authorRateLimited = new AtomicInteger();
+    private final AtomicInteger worksFailures = new AtomicInteger();
+    private final AtomicInteger bulkFailures = new AtomicInteger();
+
+    private HttpServer server;
+
+    @TempDir
+    Path stateDir;
+
+    private record Page(List<String> workIds, String nextCursor) {
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/authors/", this::handleAuthor);
+        server.createContext("/works", this::handleWorks);
+        server.createContext("/_bulk", this::handleBulk);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void resumesFromCheckpointAfterFailedPage() throws Exception {
+        authorRateLimited.set(1);
+        worksFailures.set(1);
+
+        // 第一次运行只处理 A1：作者详情先 429 后成功，第二页失败，停在 c2 检查点
+        OpenAlexIngestor.IngestStats first = new OpenAlexIngestor(options(1)).run();
+        assertEquals(0, first.authors());
+        assertEquals(1, first.failedAuthors());
+        assertEquals(2, first.works());
+        assertEquals(2, requests.stream().filter(r -> r.equals("author A1")).count());
+        assertEquals(List.of("W1", "W2"), ids("works.jsonl"));
+
+        requests.clear();
+        OpenAlexIngestor.IngestStats second = new OpenAlexIngestor(options(0)).run();
+        assertEquals(3, second.authors());
+        assertEquals(0, second.failedAuthors());
+        assertEquals(1, second.works());
+        // A1 从 c2 继续，不再重新抓取作者详情和第一页
+        assertFalse(requests.contains("author A1"));
+        assertFalse(requests.contains("works A1 *"));
+        assertTrue(requests.contains("works A1 c2"));
+
+        assertEquals(List.of("W1", "W2", "W3"), ids("works.jsonl"));
+        assertEquals(List.of("A1", "A2", "A3"), ids("authors.jsonl"));
+        assertEquals(Set.of("W1", "W2", "W3", "A1", "A2", "A3"), indexedIds);
+    }
+
+    @Test
+    void retriesPageWhenBulkFails() throws Exception {
+        bulkFailures.set(1);
+
+        // bulk 返回 503 的文档错误，A1 记为失败，第一页不记录检查点，论文也不算已写出
+        OpenAlexIngestor.IngestStats first = new OpenAlexIngestor(options(1)).run();
+        assertEquals(1, first.failedAuthors());
+        assertEquals(0, first.works());
+        assertTrue(indexedIds.isEmpty());
+
+        requests.clear();
+        OpenAlexIngestor.IngestStats second = new OpenAlexIngestor(options(0)).run();
+        assertEquals(3, second.authors());
+        assertEquals(3, second.works());
+        assertTrue(requests.contains("works A1 *"));
+        assertEquals(Set.of("W1", "W2", "W3", "A1", "A2", "A3"), indexedIds);
+        // 失败那一页在 JSONL 中会重复出现一次
+        assertEquals(List.of("W1", "W2", "W1", "W2", "W3"), ids("works.jsonl"));
+    }
+
+    private IngestOptions options(long maxAuthors) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        return IngestOptions.fromArgs(new String[]{
+                "--api-base-url=" + baseUrl,
+                "--seeds=A1",
+                "--state-dir=" + stateDir,
+                "--requests-per-second=100",
+                "--concurrency=1",
+                "--max-authors=" + maxAuthors,
+                "--es-url=" + baseUrl,
+                "--bulk-size=100"});
+    }
+
+    private List<String> ids(String file) throws IOException {
+        List<String> ids = new ArrayList<>();
+        for (String line : Files.readAllLines(stateDir.resolve(file), StandardCharsets.UTF_8)) {
+            ids.add(mapper.readTree(line).path("id").asText().substring(PREFIX.length()));
+        }
+        return ids;
+    }
+
+    private void handleAuthor(HttpExchange exchange) throws IOException {
+        String authorId = exchange.getRequestURI().getPath().substring("/authors/".length());
+        requests.add("author " + authorId);
+        if (authorRateLimited.getAndDecrement() > 0) {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            respond(exchange, 429, "{}");
+            return;
+        }
+        respond(exchange, 200, "{\"id\":\"" + PREFIX + authorId + "\",\"display_name\":\"" + authorId + "\"}");
+    }
+
+    private void handleWorks(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : exchange.getRequestURI().getQuery().split("&")) {
+            int idx = pair.indexOf('=');
+            params.put(pair.substring(0, idx), pair.substring(idx + 1));
+        }
+        String authorId = params.get("filter").substring("author.id:".length());
+        String cursor = params.get("cursor");
+        requests.add("works " + authorId + " " + cursor);
+        if (!cursor.equals("*") && worksFailures.getAndDecrement() > 0) {
+            respond(exchange, 400, "{}");
+            return;
+        }
+
+        Page page = worksPages.get(authorId).get(cursor);
+        StringBuilder body = new StringBuilder("{\"meta\":{\"next_cursor\":");
+        body.append(page.nextCursor() == null ? "null" : "\"" + page.nextCursor() + "\"").append("},\"results\":[");
+        for (int i = 0; i < page.workIds().size(); i++) {
+            String workId = page.workIds().get(i);
+            body.append(i == 0 ? "" : ",").append("{\"id\":\"").append(PREFIX).append(workId)
+                    .append("\",\"title\":\"").append(workId).append("\",\"authorships\":[");
+            List<String> authors = workAuthors.get(workId);
+            for (int j = 0; j < authors.size(); j++) {
+                body.append(j == 0 ? "" : ",").append("{\"author\":{\"id\":\"").append(PREFIX).append(authors.get(j))
+                        .append("\"}}");
+            }
+            body.append("]}");
+        }
+        respond(exchange, 200, body.append("]}").toString());
+    }
+
+    private void handleBulk(HttpExchange exchange) throws IOException {
+        String[] lines = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).split("\n");
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < lines.length; i += 2) {
+            JsonNode action = mapper.readTree(lines[i]);
+            ids.add(action.path("update").path("_id").asText().substring(PREFIX.length()));
+        }
+        if (bulkFailures.getAndDecrement() > 0) {
+            StringBuilder body = new StringBuilder("{\"errors\":true,\"items\":[");
+            for (int i = 0; i < ids.size(); i++) {
+                body.append(i == 0 ? "" : ",")
+                        .append("{\"update\":{\"status\":503,\"error\":{\"type\":\"unavailable_shards_exception\"}}}");
+            }
+            respond(exchange, 200, body.append("]}").toString());
+            return;
+        }
+        indexedIds.addAll(ids);
+        respond(exchange, 200, "{\"errors\":false,\"items\":[]}");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
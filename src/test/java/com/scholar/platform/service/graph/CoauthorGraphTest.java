@@ -0,0 +1,54 @@
+package com.scholar.platform.service.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoauthorGraphTest {
+
+    @Test
+    void mergesDuplicateEdgesInBothDirections() {
+        CoauthorGraph g = new CoauthorGraph.Builder()
+                .addEdge("A", "Alice", "B", "Bob", 2)
+                .addEdge("B", null, "A", null, 3)
+                .addEdge("A", null, "C", "Carol", 1)
+                .addEdge("A", null, "C", null, 4)
+                // 自环与非正权重忽略
+                .addEdge("A", null, "A", null, 5)
+                .addEdge("B", null, "C", null, 0)
+                .build();
+
+        assertEquals(3, g.nodeCount());
+        assertEquals(2, g.edgeCount());
+        int a = g.indexOf("A");
+        int b = g.indexOf("B");
+        int c = g.indexOf("C");
+        assertEquals(5, g.weight(a, b));
+        assertEquals(5, g.weight(b, a));
+        assertEquals(5, g.weight(a, c));
+        assertEquals(0, g.weight(b, c));
+        assertEquals(2, g.degree(a));
+        assertEquals(1, g.degree(b));
+
+        // 邻居按编号升序
+        for (int p = g.neighborStart(a) + 1; p < g.neighborEnd(a); p++) {
+            assertTrue(g.neighborAt(p - 1) < g.neighborAt(p));
+        }
+    }
+
+    @Test
+    void looksUpNodesByIdAndName() {
+        CoauthorGraph g = new CoauthorGraph.Builder()
+                .addEdge("A1", "Wei Zhang", "A2", "wei zhang", 1)
+                .addEdge("A2", null, "A3", "Li Na", 1)
+                .build();
+
+        assertEquals(-1, g.indexOf("missing"));
+        assertEquals("Wei Zhang", g.name(g.indexOf("A1")));
+        assertArrayEquals(new int[]{g.indexOf("A1"), g.indexOf("A2")}, g.indexesOfName("  WEI ZHANG "));
+        assertEquals(0, g.indexesOfName(null).length);
+        assertEquals(0, CoauthorGraph.empty().nodeCount());
+    }
+}
@@ -0,0 +1,97 @@
+package com.scholar.platform.service.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 小图：A-B-C-D-E 为一条链，A-F-E 为更短的路径；G-H 与其余节点不连通
+ */
+class GraphTraversalTest {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final CoauthorGraph g = new CoauthorGraph.Builder()
+            .addEdge("A", "A", "B", "B", 5)
+            .addEdge("B", "B", "C", "C", 1)
+            .addEdge("C", "C", "D", "D", 1)
+            .addEdge("D", "D", "E", "E", 1)
+            .addEdge("A", "A", "F", "F", 1)
+            .addEdge("F", "F", "E", "E", 1)
+            .addEdge("G", "G", "H", "H", 1)
+            .build();
+
+    @Test
+    void findsShortestPath() {
+        GraphTraversal.PathResult result = GraphTraversal.shortestPath(g, node("A"), node("E"), 6, 100, NO_DEADLINE);
+        assertEquals(List.of("A", "F", "E"), ids(result.path()));
+        assertFalse(result.truncated());
+
+        result = GraphTraversal.shortestPath(g, node("B"), node("D"), 6, 100, NO_DEADLINE);
+        assertEquals(List.of("B", "C", "D"), ids(result.path()));
+
+        result = GraphTraversal.shortestPath(g, node("C"), node("C"), 6, 100, NO_DEADLINE);
+        assertEquals(List.of("C"), ids(result.path()));
+    }
+
+    @Test
+    void returnsEmptyPathWhenUnreachableOrTooFar() {
+        GraphTraversal.PathResult result = GraphTraversal.shortestPath(g, node("A"), node("H"), 6, 100, NO_DEADLINE);
+        assertEquals(0, result.path().length);
+        assertFalse(result.truncated());
+
+        result = GraphTraversal.shortestPath(g, node("B"), node("E"), 2, 100, NO_DEADLINE);
+        assertEquals(0, result.path().length);
+    }
+
+    @Test
+    void fanOutLimitMarksPathTruncated() {
+        // 每个节点只展开合作次数最多的一位邻居：A 只走 B，仍能找到 A-B，但 F 方向被裁剪
+        GraphTraversal.PathResult result = GraphTraversal.shortestPath(g, node("A"), node("B"), 6, 1, NO_DEADLINE);
+        assertEquals(List.of("A", "B"), ids(result.path()));
+        assertTrue(result.truncated());
+
+        // A 和 E 都只展开一位邻居（B、D），两侧在链上各走一步后无路可走，A-F-E 被裁剪掉
+        result = GraphTraversal.shortestPath(g, node("A"), node("E"), 6, 1, NO_DEADLINE);
+        assertEquals(0, result.path().length);
+        assertTrue(result.truncated());
+    }
+
+    @Test
+    void collectsEgoNetworkWithInternalEdges() {
+        GraphTraversal.EgoResult result = GraphTraversal.egoNetwork(g, node("A"), new int[]{10, 10}, 100, NO_DEADLINE);
+        Map<Integer, Integer> nodes = result.nodes();
+        assertEquals(Map.of(node("A"), 0, node("B"), 1, node("F"), 1, node("C"), 2, node("E"), 2), nodes);
+        assertFalse(result.truncated());
+        // A-B, A-F, B-C, F-E；C-D、D-E 的另一端不在子网络中
+        assertEquals(4, result.edges().size());
+        for (int[] edge : result.edges()) {
+            assertTrue(edge[0] < edge[1]);
+            assertTrue(nodes.containsKey(edge[0]) && nodes.containsKey(edge[1]));
+            assertEquals(g.weight(edge[0], edge[1]), edge[2]);
+        }
+    }
+
+    @Test
+    void egoNetworkStopsAtMaxNodes() {
+        GraphTraversal.EgoResult result = GraphTraversal.egoNetwork(g, node("A"), new int[]{10, 10}, 2, NO_DEADLINE);
+        // 合作次数最多的 B 先加入
+        assertEquals(Map.of(node("A"), 0, node("B"), 1), result.nodes());
+        assertEquals(1, result.edges().size());
+        assertTrue(result.truncated());
+    }
+
+    private int node(String id) {
+        return g.indexOf(id);
+    }
+
+    private List<String> ids(int[] path) {
+        return Arrays.stream(path).mapToObj(g::id).toList();
+    }
+}
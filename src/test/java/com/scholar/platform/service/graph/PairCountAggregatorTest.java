@@ -0,0 +1,91 @@
+package com.scholar.platform.service.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 作者对计数：内存上限取最小值 1024，写入足够多的不同作者对迫使多次溢写，归并结果与朴素 HashMap 计数对比
+ */
+class PairCountAggregatorTest {
+
+    @TempDir
+    Path spillDir;
+
+    @Test
+    void mergesSpilledRunsWithMemory() throws Exception {
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        try (PairCountAggregator aggregator = new PairCountAggregator(1024, spillDir)) {
+            for (int i = 0; i < 50_000; i++) {
+                int a = random.nextInt(300);
+                int b = random.nextInt(300);
+                int count = 1 + random.nextInt(3);
+                // (a, b) 与 (b, a) 随机出现，应计入同一对
+                aggregator.add(a, b, count);
+                if (a != b) {
+                    expected.merge(key(Math.min(a, b), Math.max(a, b)), (long) count, Long::sum);
+                }
+            }
+            assertTrue(aggregator.spillRuns() >= 3, "应发生多次溢写: " + aggregator.spillRuns());
+
+            Map<Long, Long> actual = new HashMap<>();
+            List<Long> order = new ArrayList<>();
+            aggregator.forEachSorted((a, b, count) -> {
+                assertTrue(a < b);
+                order.add(key(a, b));
+                actual.put(key(a, b), (long) count);
+            });
+            assertEquals(expected, actual);
+            // 归并输出严格升序，每对只出现一次
+            for (int i = 1; i < order.size(); i++) {
+                assertTrue(order.get(i - 1) < order.get(i));
+            }
+        }
+    }
+
+    @Test
+    void normalizesPairOrderWithoutSpilling() throws Exception {
+        try (PairCountAggregator aggregator = new PairCountAggregator(1024, spillDir)) {
+            aggregator.add(7, 3, 2);
+            aggregator.add(3, 7, 5);
+            aggregator.add(0, 1, 1);
+            aggregator.add(4, 4, 9);
+            assertEquals(0, aggregator.spillRuns());
+
+            List<int[]> pairs = new ArrayList<>();
+            aggregator.forEachSorted((a, b, count) -> pairs.add(new int[]{a, b, count}));
+            assertEquals(2, pairs.size());
+            assertEquals(List.of(0, 1, 1), List.of(pairs.get(0)[0], pairs.get(0)[1], pairs.get(0)[2]));
+            assertEquals(List.of(3, 7, 7), List.of(pairs.get(1)[0], pairs.get(1)[1], pairs.get(1)[2]));
+        }
+    }
+
+    @Test
+    void closeDeletesRunFiles() throws Exception {
+        PairCountAggregator aggregator = new PairCountAggregator(1024, spillDir);
+        for (int a = 0; a < 2048; a++) {
+            aggregator.add(a, a + 1, 1);
+        }
+        assertEquals(2, aggregator.spillRuns());
+        aggregator.close();
+        try (Stream<Path> files = Files.list(spillDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static long key(int a, int b) {
+        return ((long) a << 32) | b;
+    }
+}